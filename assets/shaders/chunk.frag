@@ -0,0 +1,20 @@
+#ifdef GL_ES
+#ifdef GL_FRAGMENT_PRECISION_HIGH
+precision highp float;   // uv reaches 256 blocks, too coarse for fract() in mediump
+#else
+precision mediump float;
+#endif
+#endif
+
+uniform sampler2D u_atlas;
+uniform float     u_tileCount;
+
+varying vec2  v_uv;
+varying float v_tile;
+varying float v_shade;
+
+void main() {
+    vec2 t = fract(v_uv);
+    vec2 uv = vec2((floor(v_tile + 0.5) + t.x) / u_tileCount, t.y);
+    gl_FragColor = vec4(texture2D(u_atlas, uv).rgb * v_shade, 1.0);
+}
@@ -0,0 +1,36 @@
+// Chunk terrain: decodes ChunkMeshBuilder's packed vertex
+// (x, y, z, normalIndex | material << 3) and derives the atlas lookup.
+attribute vec4 a_packed;
+
+uniform mat4 u_projViewTrans;
+uniform vec3 u_origin;      // region corner; vertices are region-relative
+
+// texture coordinates in blocks; the fragment shader wraps them per block
+varying vec2  v_uv;
+varying float v_tile;
+varying float v_shade;
+
+void main() {
+    vec3  p        = a_packed.xyz;
+    float info     = a_packed.w;
+    float normal   = mod(info, 8.0);
+
+    // UVs lie in the face plane, with v running down the sides;
+    // fixed per-face shading: top bright, sides in between, bottom dark
+    if (normal < 1.5) {                 // +X, -X
+        v_uv = vec2(p.z, -p.y);
+        v_shade = 0.8;
+    } else if (normal < 2.5) {          // +Y
+        v_uv = p.xz;
+        v_shade = 1.0;
+    } else if (normal < 3.5) {          // -Y
+        v_uv = p.xz;
+        v_shade = 0.5;
+    } else {                            // +Z, -Z
+        v_uv = vec2(p.x, -p.y);
+        v_shade = 0.65;
+    }
+    v_tile = floor(info / 8.0);
+
+    gl_Position = u_projViewTrans * vec4(p + u_origin, 1.0);
+}
@@ -0,0 +1,18 @@
+#ifdef GL_ES
+#ifdef GL_FRAGMENT_PRECISION_HIGH
+precision highp float;   // world x/z reach thousands of blocks
+#else
+precision mediump float;
+#endif
+#endif
+
+uniform vec4 u_hole;        // min x, min z, max x, max z of the meshed voxel chunks
+
+varying vec3 v_color;
+varying vec2 v_world;
+
+void main() {
+    // the voxel terrain is drawn there instead
+    if (all(greaterThanEqual(v_world, u_hole.xy)) && all(lessThan(v_world, u_hole.zw))) discard;
+    gl_FragColor = vec4(v_color, 1.0);
+}
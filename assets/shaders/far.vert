@@ -0,0 +1,18 @@
+// Far terrain: FarTerrain heightfield tiles, flat-coloured per material
+// with the shade baked in by slope.
+attribute vec3 a_position;
+attribute vec2 a_surface;   // shade, material
+
+uniform mat4 u_projViewTrans;
+uniform vec3 u_origin;      // region corner; vertices are region-relative
+uniform vec3 u_colors[4];   // mean atlas colour per material
+
+varying vec3 v_color;
+varying vec2 v_world;
+
+void main() {
+    vec3 p  = a_position + u_origin;
+    v_world = p.xz;
+    v_color = u_colors[int(a_surface.y + 0.5)] * a_surface.x;
+    gl_Position = u_projViewTrans * vec4(p, 1.0);
+}
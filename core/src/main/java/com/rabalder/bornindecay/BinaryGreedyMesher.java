@@ -0,0 +1,191 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.math.Vector3;
+
+import java.util.Arrays;
+
+/**
+ * Binary greedy mesher for one chunk section.
+ *
+ * Solid occupancy is packed into one long per column along each axis, with
+ * the neighbouring block on either side in bits 0 and SIZE+1.  Visible faces
+ * fall out of {@code col & ~(col >> 1)} / {@code col & ~(col << 1)}, are
+ * scattered into per‑block‑type 16‑bit slice planes, and merged into
+ * rectangles with trailing‑zero scans – no per‑cell id comparisons and no
+ * per‑slice allocation.  Produces the same faces as the mask‑based greedy
+ * path and emits through {@link ChunkMeshBuilder#emitRect}.  Not thread‑safe;
+ * one per builder.
+ */
+class BinaryGreedyMesher {
+    private static final int SIZE  = Chunk.SIZE;
+    private static final int AREA  = SIZE * SIZE;
+    private static final long ROW_MASK = (1L << SIZE) - 1;
+
+    private final ChunkMeshBuilder out;
+
+    // section scratch
+    private final byte[] blocks = new byte[BlockStorage.VOLUME];
+    private final byte[] row    = new byte[SIZE];
+    /** Occupancy columns: occX[y*SIZE+z] bits x, occY[z*SIZE+x] bits y, occZ[x*SIZE+y] bits z. */
+    private final long[] occX = new long[AREA], occY = new long[AREA], occZ = new long[AREA];
+    /** Neighbour bits just outside the section, same indexing as the matching occupancy column. */
+    private final long[] padX = new long[AREA], padY = new long[AREA], padZ = new long[AREA];
+
+    /** Slice planes per block type: planes[(slot*SIZE + slice)*SIZE + row], bit = column. */
+    private final int[]  planes     = new int[256 * AREA];
+    private final int[]  slotOf     = new int[256];
+    private final byte[] idOfSlot   = new byte[256];
+    private int slotCount;
+
+    BinaryGreedyMesher(ChunkMeshBuilder out) {
+        this.out = out;
+    }
+
+    void meshSection(ChunkMeshData data, int s) {
+        Chunk c = data.chunk;
+        int baseY = s * SIZE;
+        out.yOffset = baseY;
+
+        loadSection(c.getSection(s));
+        loadPadding(data, baseY);
+
+        // X faces: columns over x for every (y,z)
+        faces(occX, padX, 0, 1, 2, ChunkMeshBuilder.POS_X, false);
+        faces(occX, padX, 0, 1, 2, ChunkMeshBuilder.NEG_X, false);
+        // Y faces: columns over y for every (x,z)
+        faces(occY, padY, 1, 0, 2, ChunkMeshBuilder.POS_Y, true);
+        faces(occY, padY, 1, 0, 2, ChunkMeshBuilder.NEG_Y, false);
+        // Z faces: columns over z for every (x,y)
+        faces(occZ, padZ, 2, 0, 1, ChunkMeshBuilder.POS_Z, false);
+        faces(occZ, padZ, 2, 0, 1, ChunkMeshBuilder.NEG_Z, false);
+    }
+
+    /** Copies the section into the flat scratch and builds the three occupancy orientations. */
+    private void loadSection(ChunkSection section) {
+        Arrays.fill(occX, 0L);
+        Arrays.fill(occY, 0L);
+        Arrays.fill(occZ, 0L);
+        slotCount = 0;
+        Arrays.fill(slotOf, -1);
+
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                section.getRow(y, z, row, 0);
+                int base = BlockStorage.index(0, y, z);
+                long bitsX = 0;
+                for (int x = 0; x < SIZE; x++) {
+                    byte id = row[x];
+                    blocks[base + x] = id;
+                    if (id == BlockType.AIR) continue;
+                    if (slotOf[id & 0xff] < 0) {
+                        slotOf[id & 0xff] = slotCount;
+                        idOfSlot[slotCount++] = id;
+                    }
+                    bitsX |= 1L << x;
+                    occY[z*SIZE + x] |= 1L << y;
+                    occZ[x*SIZE + y] |= 1L << z;
+                }
+                occX[y*SIZE + z] = bitsX;
+            }
+        }
+    }
+
+    /** Solid bits of the blocks bordering the section on each axis, from neighbours or the column. */
+    private void loadPadding(ChunkMeshData data, int baseY) {
+        Chunk c     = data.chunk;
+        Chunk west  = data.neighbours[Direction.WEST.ordinal()];
+        Chunk east  = data.neighbours[Direction.EAST.ordinal()];
+        Chunk north = data.neighbours[Direction.NORTH.ordinal()];
+        Chunk south = data.neighbours[Direction.SOUTH.ordinal()];
+        long high = 1L << (SIZE + 1);
+
+        for (int a = 0; a < SIZE; a++) {
+            for (int b = 0; b < SIZE; b++) {
+                // X: a=y, b=z
+                long p = 0;
+                if (west != null && west.getBlock(SIZE-1, baseY+a, b) != BlockType.AIR) p |= 1;
+                if (east != null && east.getBlock(0,      baseY+a, b) != BlockType.AIR) p |= high;
+                padX[a*SIZE + b] = p;
+                // Y: a=z, b=x; the world floor counts as solid so its underside is never meshed
+                p = 0;
+                if (baseY == 0 || c.getBlock(b, baseY-1, a) != BlockType.AIR) p |= 1;
+                if (c.getBlock(b, baseY+SIZE, a) != BlockType.AIR)              p |= high;
+                padY[a*SIZE + b] = p;
+                // Z: a=x, b=y
+                p = 0;
+                if (north != null && north.getBlock(a, baseY+b, SIZE-1) != BlockType.AIR) p |= 1;
+                if (south != null && south.getBlock(a, baseY+b, 0)      != BlockType.AIR) p |= high;
+                padZ[a*SIZE + b] = p;
+            }
+        }
+    }
+
+    /**
+     * One face direction: finds visible faces per column, scatters them into
+     * per‑type slice planes indexed [slice][v1] with bit v2, then merges.
+     */
+    private void faces(long[] occ, long[] pad,
+                       int uIndex, int v1Index, int v2Index,
+                       Vector3 normal, boolean isTopFace)
+    {
+        boolean positive = (normal.x + normal.y + normal.z) > 0;
+        Arrays.fill(planes, 0, slotCount * AREA, 0);
+
+        for (int col = 0; col < AREA; col++) {
+            long bits = (occ[col] << 1) | pad[col];
+            long visible = positive ? bits & ~(bits >>> 1) : bits & ~(bits << 1);
+            visible = (visible >>> 1) & ROW_MASK;
+            if (visible == 0) continue;
+
+            // decode the column's two in‑plane coordinates
+            int v1, v2;
+            if      (uIndex == 0) { v1 = col / SIZE; v2 = col % SIZE; } // occX[y*SIZE+z]
+            else if (uIndex == 1) { v1 = col % SIZE; v2 = col / SIZE; } // occY[z*SIZE+x]
+            else                  { v1 = col / SIZE; v2 = col % SIZE; } // occZ[x*SIZE+y]
+
+            while (visible != 0) {
+                int k = Long.numberOfTrailingZeros(visible);
+                visible &= visible - 1;
+                byte id = blocks[blockIndex(uIndex, k, v1, v2)];
+                int slot = slotOf[id & 0xff];
+                planes[(slot*SIZE + k)*SIZE + v1] |= 1 << v2;
+            }
+        }
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            byte id = idOfSlot[slot];
+            for (int k = 0; k < SIZE; k++) {
+                mergePlane((slot*SIZE + k)*SIZE, id, k, uIndex, v1Index, v2Index, normal, isTopFace);
+            }
+        }
+    }
+
+    /** Greedy rectangles out of 16 rows of 16‑bit masks, by bit scans. */
+    private void mergePlane(int base, byte id, int slice,
+                            int uIndex, int v1Index, int v2Index,
+                            Vector3 normal, boolean isTopFace)
+    {
+        for (int i = 0; i < SIZE; i++) {
+            int r;
+            while ((r = planes[base + i]) != 0) {
+                int j = Integer.numberOfTrailingZeros(r);
+                int w = Integer.numberOfTrailingZeros(~(r >>> j));
+                int run = (w == 32 ? -1 : (1 << w) - 1) << j;
+                planes[base + i] = r & ~run;
+                int h = 1;
+                while (i + h < SIZE && (planes[base + i + h] & run) == run) {
+                    planes[base + i + h] &= ~run;
+                    h++;
+                }
+                out.emitRect(id, slice, uIndex, v1Index, v2Index, i, j, h, w, normal, isTopFace);
+            }
+        }
+    }
+
+    /** Flat section index of the block at depth k along uIndex and in‑plane (v1, v2). */
+    private static int blockIndex(int uIndex, int k, int v1, int v2) {
+        if (uIndex == 0) return BlockStorage.index(k, v1, v2);   // v1=y, v2=z
+        if (uIndex == 1) return BlockStorage.index(v1, k, v2);   // v1=x, v2=z
+        return BlockStorage.index(v1, v2, k);                    // v1=x, v2=y
+    }
+}
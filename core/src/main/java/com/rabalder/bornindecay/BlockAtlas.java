@@ -0,0 +1,95 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Block textures packed into one texture: a single row of square tiles,
+ * tile i for material id i (see {@link BlockType}).  Tiles are loaded from
+ * assets/textures and scaled to {@link #TILE} pixels; blocks without a
+ * texture get a flat colour tile so the atlas is always complete.  Each
+ * tile's mean colour is kept too, for surfaces too far away to texture.
+ * Render thread only.
+ */
+public class BlockAtlas implements Disposable {
+    /** Tile edge in pixels. */
+    public static final int TILE = 64;
+
+    /** Texture per material id, or null for a colour tile. */
+    private static final String[] FILES = {
+        null,                                  // AIR, never meshed
+        null,                                  // GRASS
+        "textures/block_decayed_soil.png",     // DIRT
+        null                                   // STONE
+    };
+
+    /** Fallback colour per material id. */
+    private static final Color[] COLORS = {
+        Color.MAGENTA,
+        Color.GREEN,
+        new Color(0.6f, 0.4f, 0.2f, 1f),
+        Color.GRAY
+    };
+
+    private final Texture texture;
+    /** Mean rgb per tile, three floats each. */
+    private final float[] averages = new float[FILES.length * 3];
+
+    public BlockAtlas() {
+        Pixmap atlas = new Pixmap(FILES.length * TILE, TILE, Pixmap.Format.RGBA8888);
+        atlas.setFilter(Pixmap.Filter.BiLinear);
+        for (int i = 0; i < FILES.length; i++) {
+            FileHandle file = FILES[i] == null ? null : Gdx.files.internal(FILES[i]);
+            if (file != null && file.exists()) {
+                Pixmap tile = new Pixmap(file);
+                atlas.drawPixmap(tile, 0, 0, tile.getWidth(), tile.getHeight(), i * TILE, 0, TILE, TILE);
+                tile.dispose();
+            } else {
+                atlas.setColor(COLORS[i]);
+                atlas.fillRectangle(i * TILE, 0, TILE, TILE);
+            }
+        }
+        for (int i = 0; i < FILES.length; i++) {
+            float r = 0, g = 0, b = 0;
+            for (int y = 0; y < TILE; y++) {
+                for (int x = i * TILE; x < (i+1) * TILE; x++) {
+                    int rgba = atlas.getPixel(x, y);
+                    r += (rgba >>> 24) & 0xff;
+                    g += (rgba >>> 16) & 0xff;
+                    b += (rgba >>>  8) & 0xff;
+                }
+            }
+            float scale = 1f / (255f * TILE * TILE);
+            averages[i*3]   = r * scale;
+            averages[i*3+1] = g * scale;
+            averages[i*3+2] = b * scale;
+        }
+        texture = new Texture(atlas);
+        // tiles repeat per block inside greedy quads, so mip levels would bleed across tiles
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        atlas.dispose();
+    }
+
+    public Texture getTexture() {
+        return texture;
+    }
+
+    /** Mean rgb of every tile in order, three floats per material id. */
+    public float[] getAverageColors() {
+        return averages;
+    }
+
+    /** Number of tiles across the atlas. */
+    public int getTileCount() {
+        return FILES.length;
+    }
+
+    @Override
+    public void dispose() {
+        texture.dispose();
+    }
+}
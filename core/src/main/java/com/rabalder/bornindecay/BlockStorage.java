@@ -0,0 +1,214 @@
+package com.rabalder.bornindecay;
+
+/**
+ * Block ids for one SIZE³ cube, kept in a single flat index space
+ * (x fastest, then z, then y) so a row along x is contiguous.
+ *
+ * Two modes: a plain byte[] (one byte per block), or palette‑compressed,
+ * where each block is a 1/2/4‑bit index into a tiny palette of block ids,
+ * packed into a long[].  Chunks with only a handful of block types (i.e. all
+ * of them, today) sit in the compressed mode and use 512–2048 bytes instead of 4096.
+ */
+public class BlockStorage {
+    public static final int SIZE   = Chunk.SIZE;
+    public static final int VOLUME = SIZE * SIZE * SIZE;
+
+    /** Palettes larger than this fall back to the flat byte[] mode. */
+    private static final int MAX_PALETTE = 16;
+
+    // flat mode
+    private byte[] flat;
+
+    // palette mode
+    private byte[] palette;
+    private int    paletteSize;
+    private int    bits;
+    private long[] data;
+
+    /** An all‑air cube in palette mode. */
+    public BlockStorage() {
+        this(BlockType.AIR);
+    }
+
+    /** A cube filled with one block id, in palette mode. */
+    public BlockStorage(byte fill) {
+        palette     = new byte[2];
+        palette[0]  = fill;
+        paletteSize = 1;
+        bits        = 1;
+        data        = new long[VOLUME / 64];
+    }
+
+    private BlockStorage(BlockStorage other) {
+        flat        = other.flat    == null ? null : other.flat.clone();
+        palette     = other.palette == null ? null : other.palette.clone();
+        paletteSize = other.paletteSize;
+        bits        = other.bits;
+        data        = other.data    == null ? null : other.data.clone();
+    }
+
+    /** An independent copy in the same mode; writes to either leave the other alone. */
+    public BlockStorage copy() {
+        return new BlockStorage(this);
+    }
+
+    /**
+     * Builds a storage from a flat array laid out like {@link #index},
+     * choosing the smallest representation that fits.
+     */
+    public static BlockStorage of(byte[] blocks) {
+        if (blocks.length != VOLUME) throw new IllegalArgumentException("expected " + VOLUME + " blocks");
+        BlockStorage s = new BlockStorage(blocks[0]);
+        for (int i = 0; i < VOLUME; i++) {
+            s.set(i, blocks[i]);
+        }
+        return s;
+    }
+
+    /** Flat index of a local block; no bounds check. */
+    public static int index(int x, int y, int z) {
+        return (y * SIZE + z) * SIZE + x;
+    }
+
+    public byte get(int x, int y, int z) {
+        return get(index(x, y, z));
+    }
+
+    public void set(int x, int y, int z, byte id) {
+        set(index(x, y, z), id);
+    }
+
+    public byte get(int i) {
+        if (flat != null) return flat[i];
+        int perLong = 64 / bits;
+        long word = data[i / perLong];
+        int shift = (i % perLong) * bits;
+        return palette[(int)(word >>> shift) & ((1 << bits) - 1)];
+    }
+
+    public void set(int i, byte id) {
+        if (flat != null) { flat[i] = id; return; }
+        int p = paletteIndex(id);
+        if (p < 0) {
+            p = addToPalette(id);
+            if (flat != null) { flat[i] = id; return; }
+        }
+        writeIndex(i, p);
+    }
+
+    /** Copies the SIZE blocks of row (y,z) along x into dst[off..off+SIZE). */
+    public void getRow(int y, int z, byte[] dst, int off) {
+        int base = index(0, y, z);
+        if (flat != null) {
+            System.arraycopy(flat, base, dst, off, SIZE);
+            return;
+        }
+        // a row is SIZE*bits <= 64 bits, so with power‑of‑two widths it never straddles a long
+        int perLong = 64 / bits;
+        int mask = (1 << bits) - 1;
+        long word = data[base / perLong] >>> ((base % perLong) * bits);
+        for (int x = 0; x < SIZE; x++) {
+            dst[off + x] = palette[(int)word & mask];
+            word >>>= bits;
+        }
+    }
+
+    /** Writes src[off..off+SIZE) into row (y,z) along x. */
+    public void setRow(int y, int z, byte[] src, int off) {
+        int base = index(0, y, z);
+        if (flat != null) {
+            System.arraycopy(src, off, flat, base, SIZE);
+            return;
+        }
+        for (int x = 0; x < SIZE; x++) {
+            set(base + x, src[off + x]);
+        }
+    }
+
+    /** True when the whole cube is a single block id. */
+    public boolean isUniform() {
+        if (flat == null) {
+            if (paletteSize == 1) return true;
+            int first = readIndex(0);
+            for (int i = 1; i < VOLUME; i++) {
+                if (readIndex(i) != first) return false;
+            }
+            return true;
+        }
+        byte first = flat[0];
+        for (int i = 1; i < VOLUME; i++) {
+            if (flat[i] != first) return false;
+        }
+        return true;
+    }
+
+    /** Bits used per block: 1, 2, 4 in palette mode, 8 when flat. */
+    public int getBitsPerBlock() {
+        return flat != null ? 8 : bits;
+    }
+
+    /** Approximate heap bytes held by the block arrays. */
+    public int getMemoryBytes() {
+        return flat != null ? flat.length : data.length * 8 + palette.length;
+    }
+
+    private int paletteIndex(byte id) {
+        for (int p = 0; p < paletteSize; p++) {
+            if (palette[p] == id) return p;
+        }
+        return -1;
+    }
+
+    /** Adds id to the palette, widening or going flat as needed; returns its index. */
+    private int addToPalette(byte id) {
+        if (paletteSize == MAX_PALETTE) {
+            toFlat();
+            return -1;
+        }
+        if (paletteSize == (1 << bits)) {
+            repack(bits * 2);
+        }
+        if (paletteSize == palette.length) {
+            byte[] grown = new byte[Math.min(palette.length * 2, MAX_PALETTE)];
+            System.arraycopy(palette, 0, grown, 0, paletteSize);
+            palette = grown;
+        }
+        palette[paletteSize] = id;
+        return paletteSize++;
+    }
+
+    private void repack(int newBits) {
+        long[] old = data;
+        int oldBits = bits;
+        int oldPer = 64 / oldBits, oldMask = (1 << oldBits) - 1;
+        bits = newBits;
+        data = new long[VOLUME * newBits / 64];
+        for (int i = 0; i < VOLUME; i++) {
+            int p = (int)(old[i / oldPer] >>> ((i % oldPer) * oldBits)) & oldMask;
+            writeIndex(i, p);
+        }
+    }
+
+    private void toFlat() {
+        byte[] f = new byte[VOLUME];
+        for (int i = 0; i < VOLUME; i++) {
+            f[i] = palette[readIndex(i)];
+        }
+        flat = f;
+        palette = null;
+        data = null;
+        paletteSize = 0;
+    }
+
+    private int readIndex(int i) {
+        int perLong = 64 / bits;
+        return (int)(data[i / perLong] >>> ((i % perLong) * bits)) & ((1 << bits) - 1);
+    }
+
+    private void writeIndex(int i, int p) {
+        int perLong = 64 / bits;
+        int w = i / perLong, shift = (i % perLong) * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        data[w] = (data[w] & ~mask) | (((long)p << shift) & mask);
+    }
+}
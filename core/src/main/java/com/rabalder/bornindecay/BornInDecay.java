@@ -4,36 +4,33 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
-import com.badlogic.gdx.graphics.g3d.Environment;
-import com.badlogic.gdx.graphics.g3d.ModelBatch;
-import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.GridPoint3;
+import com.badlogic.gdx.utils.TimeUtils;
 
 import java.util.List;
 
 public class BornInDecay extends ApplicationAdapter {
     PerspectiveCamera camera;
-    ModelBatch      modelBatch;
-    Environment     environment;
+    TerrainRenderer terrainRenderer;
     ShapeRenderer   shapeRenderer;
     SpriteBatch     spriteBatch;
     BitmapFont      font;
 
     WorldManager     worldManager;
     PlayerController player;
-    ModelInstance    highlightInstance;
+    final GridPoint3 target     = new GridPoint3();
+    final GridPoint3 targetFace = new GridPoint3();
     boolean          highlightVisible;
 
     @Override
     public void create() {
         camera = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         camera.near = 0.1f; camera.far = 1000f;
-        modelBatch    = new ModelBatch();
-        environment   = new Environment();
+        terrainRenderer = new TerrainRenderer();
         shapeRenderer = new ShapeRenderer();
         spriteBatch   = new SpriteBatch();
         font          = new BitmapFont();
@@ -46,20 +43,13 @@ public class BornInDecay extends ApplicationAdapter {
         float spawnX = 0f, spawnZ = 0f;
         player.position.set(spawnX, 200f, spawnZ);
 
-        // prebuild around spawn
+        // stand on the surface; the heightmap answers without any chunk loaded
+        player.position.y = worldManager.getSurfaceHeight((int)Math.floor(spawnX), (int)Math.floor(spawnZ))
+            + PlayerController.EYE_HEIGHT;
+
+        // prebuild around spawn (generation is async, so wait for it here)
         worldManager.update(player.position);
-        // find highest voxel under (spawnX,spawnZ)
-        List<Vector3> voxels = worldManager.getCollisionVoxels();
-        float bestY = Float.NEGATIVE_INFINITY;
-        for (Vector3 v : voxels) {
-            if (Math.abs(v.x - spawnX) < 0.5f &&
-                Math.abs(v.z - spawnZ) < 0.5f) {
-                bestY = Math.max(bestY, v.y);
-            }
-        }
-        if (bestY > Float.NEGATIVE_INFINITY) {
-            player.position.y = bestY + 2f;
-        }
+        worldManager.awaitChunks();
 
         // rebuild once more at final spawn
         worldManager.update(player.position);
@@ -71,42 +61,41 @@ public class BornInDecay extends ApplicationAdapter {
 
     @Override
     public void render() {
-        // 1) get delta
+        // 1) get delta; the frame's own work is timed separately, without the wait for vsync
         float deltaTime = Gdx.graphics.getDeltaTime();
+        long  frameStart = TimeUtils.nanoTime();
 
-        // 2) regenerate chunks around player
-        worldManager.update(player.position);
+        // 2) regenerate chunks around player, what the camera faces first
+        worldManager.update(player.position, camera.direction);
 
-        // 3) gather data
-        List<ModelInstance> chunks         = worldManager.getChunkMeshes();
-        List<Vector3>       collisionVoxels = worldManager.getCollisionVoxels();
+        // 3) move + collide against the blocks around the player
+        player.update(camera, deltaTime, worldManager);
 
-        // 4) move + collide
-        player.update(camera, deltaTime, collisionVoxels);
+        // 4) optional highlight
+        highlightVisible = RaycastUtil.getTargetedBlock(camera, worldManager, 6f, target, targetFace);
 
-        // 5) optional highlight
-        ModelInstance target = RaycastUtil.getTargetedBlock(camera, chunks, 6f);
-        highlightVisible = (target != null);
-        if (highlightVisible) {
-            Vector3 p = target.transform.getTranslation(new Vector3());
-            highlightInstance.transform.setToTranslation(p);
-        }
-
-        // 6) clear
+        // 5) clear
         Gdx.gl.glDisable(GL20.GL_CULL_FACE);
         Gdx.gl.glEnable(GL20.GL_DEPTH_TEST);
         Gdx.gl.glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
 
-        // 7) draw all
-        modelBatch.begin(camera);
-        if (highlightVisible) modelBatch.render(highlightInstance, environment);
-        for (ModelInstance mi : chunks) {
-            modelBatch.render(mi, environment);
+        // 6) draw what the camera can see
+        List<ChunkMesh.Section> visible = worldManager.getVisibleSections(camera);
+        terrainRenderer.render(camera, visible);
+        terrainRenderer.renderFar(camera, worldManager.getFarTerrain());
+        if (highlightVisible) {
+            // outline of the targeted block; box() extends towards -z
+            shapeRenderer.setProjectionMatrix(camera.combined);
+            shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+            shapeRenderer.setColor(Color.WHITE);
+            shapeRenderer.box(target.x - 0.005f, target.y - 0.005f, target.z + 1.005f, 1.01f, 1.01f, 1.01f);
+            shapeRenderer.end();
         }
-        modelBatch.end();
 
-        // 8) HUD
+        // 7) HUD
+        shapeRenderer.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        shapeRenderer.updateMatrices();
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
         shapeRenderer.setColor(Color.WHITE);
         shapeRenderer.circle(Gdx.graphics.getWidth()/2f, Gdx.graphics.getHeight()/2f, 3f);
@@ -115,14 +104,34 @@ public class BornInDecay extends ApplicationAdapter {
         spriteBatch.begin();
         font.draw(spriteBatch, "FPS: " + Gdx.graphics.getFramesPerSecond(),
             10, Gdx.graphics.getHeight()-10);
+        font.draw(spriteBatch, "Cave samples/chunk: " + (int)worldManager.getCaveSamplesPerChunk(),
+            10, Gdx.graphics.getHeight()-30);
+        font.draw(spriteBatch, "Chunks drawn/culled: " + worldManager.getDrawnChunkCount() + " / " + worldManager.getCulledChunkCount(),
+            10, Gdx.graphics.getHeight()-50);
+        font.draw(spriteBatch, "Sections drawn/culled: " + visible.size() + " / " + worldManager.getCulledSectionCount()
+                + "  draw calls: " + terrainRenderer.getDrawCalls() + " + " + terrainRenderer.getFarDrawCalls() + " far",
+            10, Gdx.graphics.getHeight()-70);
+        VertexBufferPool buffers = worldManager.getBufferPool();
+        font.draw(spriteBatch, "Meshes: " + worldManager.getMeshCount() + " in " + worldManager.getRegionCount() + " regions, "
+                + (worldManager.getMeshBytes() >> 10) + " KB  buffers: " + buffers.getLiveCount()
+                + " (" + (buffers.getLiveBytes() >> 10) + " KB, " + buffers.getIdleCount() + " pooled)",
+            10, Gdx.graphics.getHeight()-90);
+        RadiusController radius = worldManager.getRadiusController();
+        font.draw(spriteBatch, "Radius: " + worldManager.getRadius() + " chunks  frame p50/p95: "
+                + Math.round(radius.getMedian() * 1000f) + " / " + Math.round(radius.getP95() * 1000f) + " ms",
+            10, Gdx.graphics.getHeight()-110);
         spriteBatch.end();
+
+        // 8) let the load radius follow the frame time
+        worldManager.recordFrameTime((TimeUtils.nanoTime() - frameStart) / 1e9f);
     }
 
     @Override
     public void dispose() {
-        modelBatch.dispose();
+        terrainRenderer.dispose();
         shapeRenderer.dispose();
         spriteBatch.dispose();
         font.dispose();
+        worldManager.dispose();
     }
 }
@@ -0,0 +1,95 @@
+package com.rabalder.bornindecay;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 3D density field that carves caves and overhangs out of the solid part of
+ * a chunk.  {@link OpenSimplexNoise#noise3_ImproveXZ} is only sampled on a
+ * coarse lattice every {@link #LATTICE} blocks and trilinearly interpolated
+ * per block, which costs 125 noise calls per section instead of 4096.
+ * Samples and chunks are counted so the lattice spacing can be tuned
+ * against generation time.  Thread‑safe.
+ */
+public class CaveField {
+    /** Lattice spacing in blocks; must divide Chunk.SIZE. */
+    public static final int LATTICE = 4;
+
+    private static final int    SIZE      = Chunk.SIZE;
+    private static final int    POINTS    = SIZE / LATTICE + 1;
+    private static final double FREQUENCY = 1.0 / 32.0;
+    /** Density above which a solid block becomes air. */
+    private static final float  THRESHOLD = 0.3f;
+    /** Seed offset so caves don't line up with the heightmap octaves. */
+    private static final long   SEED_SALT = 0x43415645L;
+
+    private final long seed;
+
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong chunks  = new AtomicLong();
+
+    public CaveField(long seed) {
+        this.seed = seed ^ SEED_SALT;
+    }
+
+    /**
+     * Turns solid blocks of one section into air where the density is above
+     * the threshold.  {@code blocks} is laid out like {@link BlockStorage#index};
+     * the bottom layer of the world is never carved.
+     */
+    public void carve(byte[] blocks, int chunkX, int section, int chunkZ) {
+        int baseY = section * SIZE;
+        float[] lattice = new float[POINTS * POINTS * POINTS];
+        double spacing = LATTICE * FREQUENCY;
+        OpenSimplexNoise.noise3_ImproveXZGrid(seed, lattice, 0,
+            chunkX * SIZE * FREQUENCY, baseY * FREQUENCY, chunkZ * SIZE * FREQUENCY, spacing,
+            POINTS, POINTS, POINTS);
+        samples.addAndGet(lattice.length);
+
+        float inv = 1f / LATTICE;
+        for (int y = 0; y < SIZE; y++) {
+            if (baseY + y == 0) continue;
+            int   cy = y / LATTICE;
+            float fy = (y % LATTICE) * inv;
+            for (int z = 0; z < SIZE; z++) {
+                int   cz = z / LATTICE;
+                float fz = (z % LATTICE) * inv;
+                // the four lattice rows along x that bracket this (y,z)
+                int i00 = (cy * POINTS + cz) * POINTS;
+                int i01 = i00 + POINTS;
+                int i10 = i00 + POINTS * POINTS;
+                int i11 = i10 + POINTS;
+                int row = BlockStorage.index(0, y, z);
+                for (int x = 0; x < SIZE; x++) {
+                    if (blocks[row + x] == BlockType.AIR) continue;
+                    int   cx = x / LATTICE;
+                    float fx = (x % LATTICE) * inv;
+                    float d0 = lerp(lerp(lattice[i00+cx], lattice[i00+cx+1], fx),
+                                    lerp(lattice[i01+cx], lattice[i01+cx+1], fx), fz);
+                    float d1 = lerp(lerp(lattice[i10+cx], lattice[i10+cx+1], fx),
+                                    lerp(lattice[i11+cx], lattice[i11+cx+1], fx), fz);
+                    if (lerp(d0, d1, fy) > THRESHOLD) blocks[row + x] = BlockType.AIR;
+                }
+            }
+        }
+    }
+
+    /** Called once per generated chunk, for the per‑chunk sample average. */
+    public void countChunk() {
+        chunks.incrementAndGet();
+    }
+
+    /** Total lattice samples taken so far. */
+    public long getSampleCount() {
+        return samples.get();
+    }
+
+    /** Mean lattice samples per generated chunk. */
+    public float getSamplesPerChunk() {
+        long n = chunks.get();
+        return n == 0 ? 0f : samples.get() / (float)n;
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+}
@@ -1,7 +1,14 @@
 package com.rabalder.bornindecay;
 
+import java.util.Arrays;
+
 public class Chunk {
     public static final int SIZE = 16;
+    /** Number of stacked SIZE³ sections in a column. */
+    public static final int SECTIONS = 16;
+    /** World height in blocks. */
+    public static final int HEIGHT = SIZE * SECTIONS;
+
     private final int chunkX, chunkZ;
     public int getChunkX() {
         return this.chunkX;
@@ -10,58 +17,149 @@ public class Chunk {
         return this.chunkZ;
     }
 
-    private final byte[][][] blocks = new byte[SIZE][SIZE][SIZE];
+    private final ChunkSection[] sections = new ChunkSection[SECTIONS];
+
+    // bumped on every edit, so cached meshes can tell they are stale
+    private int version;
+    private int borderVersion;
 
     /** Remember which chunk this is, so we can re‑key it. */
-    public Chunk(long worldSeed, int chunkX, int chunkZ) {
+    public Chunk(HeightMap heightMap, CaveField caves, int chunkX, int chunkZ) {
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
 
-        // -- simple terrain generation as before --
-        for (int x = 0; x < SIZE; x++) {
-            for (int z = 0; z < SIZE; z++) {
-                float worldX = (chunkX*SIZE + x) * 0.1f;
-                float worldZ = (chunkZ*SIZE + z) * 0.1f;
-                int height = 8 + (int)(Math.sin(worldX)*Math.cos(worldZ)*4);
-                for (int y = 0; y < SIZE; y++) {
-                    if      (y + chunkX*0 >= height)                          blocks[x][y][z] = BlockType.AIR;
-                    else if (y + chunkX*0 == height - 1)                      blocks[x][y][z] = BlockType.GRASS;
-                    else if (y + chunkX*0 > height - 5)                       blocks[x][y][z] = BlockType.DIRT;
-                    else                                                     blocks[x][y][z] = BlockType.STONE;
+        // surface heights come from the shared, cached noise heightmap
+        int[] heights = heightMap.getColumn(chunkX, chunkZ);
+        int maxHeight = 0;
+        for (int height : heights) maxHeight = Math.max(maxHeight, height);
+
+        // fill each section flat, row by row along x, carve caves, then let it
+        // collapse to a shared uniform section or pick a palette
+        byte[] flat = new byte[BlockStorage.VOLUME];
+        for (int s = 0; s < SECTIONS; s++) {
+            int baseY = s * SIZE;
+            if (baseY >= maxHeight) { sections[s] = ChunkSection.EMPTY; continue; }
+            for (int ly = 0; ly < SIZE; ly++) {
+                int y = baseY + ly;
+                for (int z = 0; z < SIZE; z++) {
+                    int row = BlockStorage.index(0, ly, z);
+                    for (int x = 0; x < SIZE; x++) {
+                        int height = heights[z*SIZE + x];
+                        byte id;
+                        if      (y >= height)     id = BlockType.AIR;
+                        else if (y == height - 1) id = BlockType.GRASS;
+                        else if (y > height - 5)  id = BlockType.DIRT;
+                        else                      id = BlockType.STONE;
+                        flat[row + x] = id;
+                    }
                 }
             }
+            caves.carve(flat, chunkX, s, chunkZ);
+            sections[s] = ChunkSection.of(BlockStorage.of(flat));
         }
+        caves.countChunk();
     }
 
     public byte getBlock(int x,int y,int z) {
-        if (x<0||y<0||z<0||x>=SIZE||y>=SIZE||z>=SIZE) return BlockType.AIR;
-        return blocks[x][y][z];
+        if ((x|y|z) < 0 || x>=SIZE||y>=HEIGHT||z>=SIZE) return BlockType.AIR;
+        return sections[y / SIZE].get(BlockStorage.index(x, y % SIZE, z));
+    }
+
+    public void setBlock(int x,int y,int z, byte id) {
+        if ((x|y|z) < 0 || x>=SIZE||y>=HEIGHT||z>=SIZE) return;
+        int s = y / SIZE, i = BlockStorage.index(x, y % SIZE, z);
+        ChunkSection section = sections[s];
+        if (section.get(i) == id) return;
+        // copy on write, so a mesh job reading this chunk never sees a half‑done edit
+        sections[s] = section.with(i, id);
+        version++;
+        if (x==0 || z==0 || x==SIZE-1 || z==SIZE-1) borderVersion++;
+    }
+
+    /** Edit counter; changes whenever any block in this chunk changes. */
+    public int getVersion() {
+        return version;
+    }
+
+    /** Edit counter for the outer x/z walls that neighbouring meshes can see. */
+    public int getBorderVersion() {
+        return borderVersion;
+    }
+
+    /**
+     * Bulk read of the SIZE blocks along x at (y,z); y is a column height.
+     * Rows outside the column read as air, like {@link #getBlock}.
+     */
+    public void getRow(int y, int z, byte[] dst, int off) {
+        if (y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) {
+            Arrays.fill(dst, off, off + SIZE, BlockType.AIR);
+            return;
+        }
+        sections[y / SIZE].getRow(y % SIZE, z, dst, off);
+    }
+
+    /**
+     * Bulk write of the SIZE blocks along x at (y,z); y is a column height.
+     * Rows outside the column are ignored.
+     */
+    public void setRow(int y, int z, byte[] src, int off) {
+        if (y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return;
+        int s = y / SIZE;
+        sections[s] = sections[s].withRow(y % SIZE, z, src, off);
+        version++;
+        borderVersion++;   // a row always touches the x walls
+    }
+
+    public ChunkSection getSection(int s) {
+        return sections[s];
+    }
+
+    /** Heap bytes held by this column's non‑shared sections. */
+    public int getMemoryBytes() {
+        int total = 0;
+        for (ChunkSection section : sections) total += section.getMemoryBytes();
+        return total;
     }
 
-    public byte[][] buildMaskX(int x) {
+    /** Section‑local mask at column x: m[ly][z]. */
+    public byte[][] buildMaskX(int x, int s) {
         byte[][] m = new byte[SIZE][SIZE];
+        if (x<0||x>=SIZE||s<0||s>=SECTIONS||sections[s].isEmpty()) return m;
+        ChunkSection section = sections[s];
         for (int y=0; y<SIZE; y++)
             for (int z=0; z<SIZE; z++)
-                m[y][z] = getBlock(x,y,z);
+                m[y][z] = section.get(BlockStorage.index(x,y,z));
         return m;
     }
+    /** Layer mask at column height y: m[x][z]. */
     public byte[][] buildMaskY(int y) {
         byte[][] m = new byte[SIZE][SIZE];
-        for (int x=0; x<SIZE; x++)
-            for (int z=0; z<SIZE; z++)
-                m[x][z] = getBlock(x,y,z);
+        if (y<0||y>=HEIGHT||sections[y / SIZE].isEmpty()) return m;
+        byte[] row = new byte[SIZE];
+        for (int z=0; z<SIZE; z++) {
+            getRow(y, z, row, 0);
+            for (int x=0; x<SIZE; x++) m[x][z] = row[x];
+        }
         return m;
     }
-    public byte[][] buildMaskZ(int z) {
+    /** Section‑local mask at depth z: m[x][ly]. */
+    public byte[][] buildMaskZ(int z, int s) {
         byte[][] m = new byte[SIZE][SIZE];
+        if (z<0||z>=SIZE||s<0||s>=SECTIONS||sections[s].isEmpty()) return m;
+        ChunkSection section = sections[s];
         for (int x=0; x<SIZE; x++)
             for (int y=0; y<SIZE; y++)
-                m[x][y] = getBlock(x,y,z);
+                m[x][y] = section.get(BlockStorage.index(x,y,z));
         return m;
     }
 
     /** Unique 64‑bit key for this chunk’s coordinates. */
     public long getKey() {
+        return key(chunkX, chunkZ);
+    }
+
+    /** Packs chunk coordinates into the key used by the chunk maps. */
+    public static long key(int chunkX, int chunkZ) {
         return (((long)chunkX) << 32) | (chunkZ & 0xffffffffL);
     }
 
@@ -1,29 +1,88 @@
 // File: ChunkMesh.java
 package com.rabalder.bornindecay;
 
-import com.badlogic.gdx.graphics.Mesh;
-import com.badlogic.gdx.graphics.g3d.Model;
-import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.utils.Disposable;
 
+/**
+ * GPU side of one chunk: its quad range in a {@link RegionBuffer} page
+ * plus the chunk versions it was built from, so {@link WorldManager} can
+ * tell when it has gone stale.
+ * Each section's faces are a separate {@link Section} range of the page,
+ * drawn by {@link TerrainRenderer} only when the cave‑culling search
+ * reaches that section.
+ */
 public class ChunkMesh implements Disposable {
-    public final Mesh mesh;
-    public final Model model;
-    public final ModelInstance instance;
-
-    public ChunkMesh(Mesh mesh, Model model) {
-        this.mesh = mesh;
-        this.model = model;
-        this.instance = new ModelInstance(model);
+    /** One section's quads within the region page. */
+    public static final class Section {
+        public final ChunkMesh owner;
+        public final int index;
+        final int firstQuad, quadCount;
+        /** Squared camera distance, for sorting. */
+        float distance;
+
+        Section(ChunkMesh owner, int index, int firstQuad, int quadCount) {
+            this.owner = owner;
+            this.index = index;
+            this.firstQuad = firstQuad;
+            this.quadCount = quadCount;
+        }
+    }
+
+    public final Chunk chunk;
+    /** Page holding the packed vertices; null when the chunk has no faces. */
+    final RegionBuffer.Page page;
+    /** The chunk's quad range in the page. */
+    final int firstQuad, quadCount;
+    /** World position of the chunk's (0,0,0) corner. */
+    public final float originX, originZ;
+
+    /** Per‑section draws, null for sections without faces. */
+    final Section[] sections = new Section[Chunk.SECTIONS];
+    /** Per‑section face connectivity, see {@link SectionVisibility}. */
+    final short[] visibility;
+
+    /** {@link Chunk#getVersion()} at build time. */
+    final int version;
+    /**
+     * Stamp of the four horizontal neighbours at build time: a 31-based hash
+     * of 1 + 2 * {@link Chunk#getBorderVersion()} per neighbour, 0 where none
+     * is loaded, so it changes when a neighbour loads or unloads as well as
+     * when its border is edited.
+     */
+    final int neighbourVersion;
+    /** {@link ChunkMeshData#lod} it was built at. */
+    final int lod;
+    /** Last visibility pass that drew a section of this chunk. */
+    int drawnFrame;
+
+    ChunkMesh(RegionBuffer.Page page, int firstQuad, ChunkMeshData data) {
+        this.chunk = data.chunk;
+        this.page = page;
+        this.firstQuad = firstQuad;
+        this.quadCount = data.getQuadCount();
+        this.visibility = data.visibility;
+        this.version = data.version;
+        this.neighbourVersion = data.neighbourVersion;
+        this.lod = data.lod;
+
+        originX = chunk.getChunkX() * Chunk.SIZE;
+        originZ = chunk.getChunkZ() * Chunk.SIZE;
+
+        if (page == null) return;
+        for (int s = 0; s < Chunk.SECTIONS; s++) {
+            int first = data.sectionQuads[s], count = data.sectionQuads[s+1] - first;
+            if (count > 0) sections[s] = new Section(this, s, firstQuad + first, count);
+        }
     }
 
-    public ModelInstance getModelInstance() {
-        return instance;
+    /** True when the chunk has no visible faces and nothing to draw. */
+    public boolean isEmpty() {
+        return page == null;
     }
 
     @Override
     public void dispose() {
-        mesh.dispose();
-        model.dispose();
+        // the page outlives the chunk; only the range is released
+        if (page != null) page.region.free(page, firstQuad, quadCount);
     }
 }
@@ -1,82 +1,366 @@
 package com.rabalder.bornindecay;
 
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Mesh;
-import com.badlogic.gdx.graphics.VertexAttribute;
-import com.badlogic.gdx.graphics.VertexAttributes.Usage;
-import com.badlogic.gdx.graphics.g3d.Material;
-import com.badlogic.gdx.graphics.g3d.Model;
-import com.badlogic.gdx.graphics.g3d.ModelInstance;
-import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
-import com.badlogic.gdx.graphics.g3d.attributes.IntAttribute;
-import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 
+/**
+ * Greedy mesher.  Vertex and index data go into primitive, growable buffers
+ * that live as long as the builder, so after warm‑up meshing a chunk
+ * allocates nothing per quad – only the final arrays handed to the GPU.
+ * Meshing ({@link #build}) touches no GL state so it can run off the render
+ * thread; {@link RegionBuffer#upload} does the GL half.
+ *
+ * Vertices are packed into four shorts (8 bytes): x, y, z relative to the
+ * chunk's region and {@code normalIndex | material << 3}, with the region
+ * origin supplied as a uniform and decoded by {@link TerrainRenderer}.  Meshes carry
+ * no indices: every quad is four consecutive corners drawn through the
+ * shared {@link QuadIndexBuffer}.
+ *
+ * Chunks with a {@link ChunkMeshData#lod} above zero are meshed from a
+ * downsampled grid of 2^lod‑block cells instead (see {@link #meshCoarse}).
+ */
 public class ChunkMeshBuilder {
+    /** Which face‑merging algorithm {@link #build} uses. */
+    public enum Mode {
+        /** Per‑cell greedy merge over byte masks. */
+        GREEDY,
+        /** Bitmask occupancy per column, merged with bit scans; see {@link BinaryGreedyMesher}. */
+        BINARY
+    }
+
     private static final int SIZE = Chunk.SIZE;
-    private static final int VSIZE = 6; // x,y,z + nx,ny,nz
+    private static final Direction[] WALLS = { Direction.EAST, Direction.WEST, Direction.SOUTH, Direction.NORTH };
+
+    /** Coarsest level of detail: 4×4×4‑block cells. */
+    public static final int MAX_LOD = 2;
+
+    /** Floats per packed vertex; each float carries two of the four shorts. */
+    public static final int VERTEX_FLOATS = 2;
+    private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+
+    private final FloatArray verts = new FloatArray(4096);
 
-    // buffers for each type
-    private final List<Float>  grassV = new ArrayList<>();
-    private final List<Short>  grassI = new ArrayList<>();
-    private short grassB = 0;
+    static final Vector3 POS_X = new Vector3(+1,0,0), NEG_X = new Vector3(-1,0,0);
+    static final Vector3 POS_Y = new Vector3(0,+1,0), NEG_Y = new Vector3(0,-1,0);
+    static final Vector3 POS_Z = new Vector3(0,0,+1), NEG_Z = new Vector3(0,0,-1);
 
-    private final List<Float>  dirtV  = new ArrayList<>();
-    private final List<Short>  dirtI  = new ArrayList<>();
-    private short dirtB = 0;
+    private Mode mode = Mode.BINARY;
+    private final BinaryGreedyMesher binary = new BinaryGreedyMesher(this);
+    private final SectionVisibility  visibility = new SectionVisibility();
 
-    private final List<Float>  stoneV = new ArrayList<>();
-    private final List<Short>  stoneI = new ArrayList<>();
-    private short stoneB = 0;
+    /** Column height of the section being meshed. */
+    int yOffset;
+    /** Chunk position inside its region, added to x and z of every vertex. */
+    private int offsetX, offsetZ;
+    /** Blocks per mesh unit along each axis: 1, or the cell edge when meshing a coarse grid. */
+    private int scale = 1;
+
+    // per‑slice / per‑quad scratch, reused for every chunk
+    private final byte[][] faceMask = new byte[SIZE][SIZE];
+    private final float[]  low      = new float[3], high = new float[3];
+    private final float[]  corners  = new float[12];
+
+    // LOD scratch: coarse cells of the whole column as (y*c + z)*c + x, the
+    // neighbours' border cells as y*c + i, and prev/cur/next/face slice masks per level
+    private final byte[]     coarse  = new byte[(SIZE/2) * (Chunk.HEIGHT/2) * (SIZE/2)];
+    private final byte[][]   borders = new byte[4][(Chunk.HEIGHT/2) * (SIZE/2)];
+    private final byte[][][][] lodMasks = new byte[MAX_LOD+1][][][];
+    private final byte[]     layer   = new byte[(1 << MAX_LOD) * SIZE * SIZE];
+    private final int[]      counts  = new int[256];
+    private final byte[]     seen    = new byte[(1 << MAX_LOD) * (1 << MAX_LOD) * (1 << MAX_LOD)];
+    private int coarseSize, coarseHeight;
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
 
-    public ModelInstance buildChunkMesh(Chunk c) {
+    /**
+     * CPU half: greedy‑meshes data.chunk into plain arrays.  Touches no GL
+     * state, so it is safe on a worker thread (one builder per thread).
+     */
+    public ChunkMeshData build(ChunkMeshData data) {
+        Chunk c = data.chunk;
         // clear
-        grassV.clear(); grassI.clear(); grassB=0;
-        dirtV.clear();  dirtI.clear();  dirtB=0;
-        stoneV.clear(); stoneI.clear(); stoneB=0;
+        verts.clear();
+        offsetX = data.regionOffsetX;
+        offsetZ = data.regionOffsetZ;
+
+        if (data.lod > 0) downsample(data);
+
+        // one pass per vertical section; empty and fully buried sections have no visible faces
+        for (int s=0; s<Chunk.SECTIONS; s++) {
+            data.visibility[s]   = visibility.compute(c.getSection(s));
+            data.sectionQuads[s] = verts.size / (VERTEX_FLOATS*4);
+            if (canSkipSection(data, s)) continue;
+            if (data.lod > 0)             meshCoarse(data, s);
+            else if (isCapped(c, s))      meshWalls(data, s);
+            else if (mode == Mode.BINARY) binary.meshSection(data, s);
+            else                          meshSection(data, s);
+        }
+
+        data.sectionQuads[Chunk.SECTIONS] = verts.size / (VERTEX_FLOATS*4);
+        if (verts.size > 0) data.vertices = verts.toArray();
+        scale = 1;
+        return data;
+    }
+
+    /**
+     * Fills the coarse grid for data.lod.  A cell is solid if any of its
+     * blocks is, so the coarse surface never dips below the real one and
+     * leaves no gap against a finer neighbour; its material is the most
+     * common solid block, with grass counted once per block of cell height
+     * since it only ever forms a single layer on top.  Neighbour border
+     * cells are solid only when every block against the wall is, so the
+     * chunk keeps its wall faces wherever a neighbour of any detail could
+     * show a gap: those faces are the skirts between levels.
+     */
+    private void downsample(ChunkMeshData data) {
+        Chunk chunk = data.chunk;
+        scale        = 1 << data.lod;
+        coarseSize   = SIZE >> data.lod;
+        coarseHeight = Chunk.HEIGHT >> data.lod;
+        int c = coarseSize;
+
+        // 1) cells, a layer of cells at a time; uniform sections fill without reading blocks
+        for (int cy = 0; cy < coarseHeight; cy++) {
+            int y0 = cy * scale;
+            ChunkSection section = chunk.getSection(y0 / SIZE);
+            if (section.isUniform()) {
+                Arrays.fill(coarse, cy*c*c, (cy+1)*c*c, section.getUniformId());
+                continue;
+            }
+            for (int dy = 0; dy < scale; dy++) {
+                for (int z = 0; z < SIZE; z++) chunk.getRow(y0 + dy, z, layer, (dy*SIZE + z)*SIZE);
+            }
+            for (int cz = 0; cz < c; cz++) {
+                for (int cx = 0; cx < c; cx++) {
+                    byte best = BlockType.AIR;
+                    int  bestCount = 0, distinct = 0;
+                    for (int dy = 0; dy < scale; dy++) {
+                        for (int z = cz*scale; z < (cz+1)*scale; z++) {
+                            int o = (dy*SIZE + z)*SIZE;
+                            for (int x = cx*scale; x < (cx+1)*scale; x++) {
+                                byte id = layer[o + x];
+                                if (id == BlockType.AIR) continue;
+                                if (counts[id & 0xff] == 0) seen[distinct++] = id;
+                                int n = counts[id & 0xff] += id == BlockType.GRASS ? scale : 1;
+                                if (n > bestCount || (n == bestCount && id < best)) {
+                                    best = id;
+                                    bestCount = n;
+                                }
+                            }
+                        }
+                    }
+                    coarse[(cy*c + cz)*c + cx] = best;
+                    for (int k = 0; k < distinct; k++) counts[seen[k] & 0xff] = 0;
+                }
+            }
+        }
+
+        // 2) the neighbours' cells along each wall
+        borderCells(data, Direction.WEST, 0);
+        borderCells(data, Direction.EAST, 1);
+        borderCells(data, Direction.NORTH, 2);
+        borderCells(data, Direction.SOUTH, 3);
+
+        if (lodMasks[data.lod] == null) lodMasks[data.lod] = new byte[4][c][c];
+    }
+
+    /**
+     * Border cells past one wall: solid unless a block of the neighbour
+     * touching the cell is air.  A neighbour that is not loaded counts as
+     * air, as it does for full detail, so the wall faces are emitted.
+     */
+    private void borderCells(ChunkMeshData data, Direction side, int slot) {
+        int c = coarseSize;
+        byte[] out = borders[slot];
+        Chunk n = data.neighbours[side.ordinal()];
+        boolean alongZ = slot < 2;                          // west/east walls run along z
+        int edge = slot == 0 ? SIZE-1 : slot == 1 ? 0 : slot == 2 ? SIZE-1 : 0;
+        if (n == null) {
+            Arrays.fill(out, 0, coarseHeight*c, BlockType.AIR);
+            return;
+        }
+        for (int cy = 0; cy < coarseHeight; cy++) {
+            for (int i = 0; i < c; i++) {
+                byte cell = BlockType.STONE;
+                for (int y = cy*scale; y < (cy+1)*scale && cell != BlockType.AIR; y++) {
+                    for (int k = i*scale; k < (i+1)*scale; k++) {
+                        byte id = alongZ ? n.getBlock(edge, y, k) : n.getBlock(k, y, edge);
+                        if (id == BlockType.AIR) { cell = BlockType.AIR; break; }
+                    }
+                }
+                out[cy*c + i] = cell;
+            }
+        }
+    }
+
+    /** Coarse cell, reading the border cells one past the x/z walls and air above and below the column. */
+    private byte cell(int x, int y, int z) {
+        int c = coarseSize;
+        if (y < 0 || y >= coarseHeight) return BlockType.AIR;
+        if (x < 0)  return borders[0][y*c + z];
+        if (x >= c) return borders[1][y*c + z];
+        if (z < 0)  return borders[2][y*c + x];
+        if (z >= c) return borders[3][y*c + x];
+        return coarse[(y*c + z)*c + x];
+    }
+
+    /** Same slices as {@link #meshSection}, over the coarse cells of section s. */
+    private void meshCoarse(ChunkMeshData data, int s) {
+        int c = coarseSize, base = s * c;
+        byte[][][] m = lodMasks[data.lod];
+        byte[][] prev = m[0], cur = m[1], next = m[2], face = m[3];
+        yOffset = s * SIZE;
+
+        for (int x = 0; x < c; x++) {
+            for (int i = 0; i < c; i++) {
+                for (int j = 0; j < c; j++) {
+                    cur [i][j] = cell(x,   base+i, j);
+                    next[i][j] = cell(x+1, base+i, j);
+                    prev[i][j] = cell(x-1, base+i, j);
+                }
+            }
+            greedySlice(faceMask(cur, next, face), x, 0,1,2, POS_X, false);
+            greedySlice(faceMask(cur, prev, face), x, 0,1,2, NEG_X, false);
+        }
+        for (int y = 0; y < c; y++) {
+            for (int i = 0; i < c; i++) {
+                for (int j = 0; j < c; j++) {
+                    cur [i][j] = cell(i, base+y,   j);
+                    next[i][j] = cell(i, base+y+1, j);
+                    prev[i][j] = cell(i, base+y-1, j);
+                }
+            }
+            greedySlice(faceMask(cur, next, face), y, 1,0,2, POS_Y, true);
+            if (base+y > 0) greedySlice(faceMask(cur, prev, face), y, 1,0,2, NEG_Y, false);
+        }
+        for (int z = 0; z < c; z++) {
+            for (int i = 0; i < c; i++) {
+                for (int j = 0; j < c; j++) {
+                    cur [i][j] = cell(i, base+j, z);
+                    next[i][j] = cell(i, base+j, z+1);
+                    prev[i][j] = cell(i, base+j, z-1);
+                }
+            }
+            greedySlice(faceMask(cur, next, face), z, 2,0,1, POS_Z, false);
+            greedySlice(faceMask(cur, prev, face), z, 2,0,1, NEG_Z, false);
+        }
+    }
+
+    /**
+     * Air sections produce nothing.  A capped section (see {@link #isCapped})
+     * can only have faces on the chunk wall, and not even those when the
+     * same section of every neighbour is uniform solid too.  A neighbour
+     * that is not loaded counts as air, as it does for the wall masks, so
+     * the walls facing it are meshed.
+     */
+    private boolean canSkipSection(ChunkMeshData data, int s) {
+        ChunkSection section = data.chunk.getSection(s);
+        if (section.isEmpty()) return true;
+        if (!isCapped(data.chunk, s)) return false;
+        for (Direction side : WALLS) {
+            Chunk n = data.neighbours[side.ordinal()];
+            if (n == null || !isSolidUniform(n.getSection(s))) return false;
+        }
+        return true;
+    }
+
+    /** Uniform solid, with uniform solid sections (or the world floor) above and below. */
+    private static boolean isCapped(Chunk c, int s) {
+        if (!isSolidUniform(c.getSection(s))) return false;
+        boolean buriedBelow = s == 0 || isSolidUniform(c.getSection(s-1));
+        boolean buriedAbove = s+1 < Chunk.SECTIONS && isSolidUniform(c.getSection(s+1));
+        return buriedBelow && buriedAbove;
+    }
+
+    private static boolean isSolidUniform(ChunkSection section) {
+        return section.isUniform() && section.getUniformId() != BlockType.AIR;
+    }
+
+    /** The faces of a capped section: only its four wall slices, against the neighbours' border slices. */
+    private void meshWalls(ChunkMeshData data, int s) {
+        yOffset = s * SIZE;
+        greedySlice(faceMask(maskX(data, 0, s), maskX(data, -1, s), faceMask), 0, 0,1,2, NEG_X, false);
+        greedySlice(faceMask(maskX(data, SIZE-1, s), maskX(data, SIZE, s), faceMask), SIZE-1, 0,1,2, POS_X, false);
+        greedySlice(faceMask(maskZ(data, 0, s), maskZ(data, -1, s), faceMask), 0, 2,0,1, NEG_Z, false);
+        greedySlice(faceMask(maskZ(data, SIZE-1, s), maskZ(data, SIZE, s), faceMask), SIZE-1, 2,0,1, POS_Z, false);
+    }
+
+    /**
+     * Emits the visible faces of section s, culling faces against air inside
+     * the column and against the neighbouring chunks' border slices.
+     */
+    private void meshSection(ChunkMeshData data, int s) {
+        Chunk c = data.chunk;
+        int baseY = s * SIZE;
+        yOffset = baseY;
 
         // X slices
-        for (int x=0; x<=SIZE; x++) {
-            byte[][] mask = c.buildMaskX(x);
-            greedySlice(mask, x, 0,1,2, new Vector3(+1,0,0), false);
-            greedySlice(mask, x, 0,1,2, new Vector3(-1,0,0), false);
+        byte[][] prev = maskX(data, -1, s), cur = maskX(data, 0, s);
+        for (int x=0; x<SIZE; x++) {
+            byte[][] next = maskX(data, x+1, s);
+            greedySlice(faceMask(cur, next, faceMask), x, 0,1,2, POS_X, false);
+            greedySlice(faceMask(cur, prev, faceMask), x, 0,1,2, NEG_X, false);
+            prev = cur; cur = next;
         }
         // Y slices (grass tops!)
-        for (int y=0; y<=SIZE; y++) {
-            byte[][] mask = c.buildMaskY(y);
-            greedySlice(mask, y, 1,2,0, new Vector3(0,+1,0), true);
-            greedySlice(mask, y, 1,2,0, new Vector3(0,-1,0), false);
+        prev = c.buildMaskY(baseY-1); cur = c.buildMaskY(baseY);
+        for (int y=0; y<SIZE; y++) {
+            byte[][] next = c.buildMaskY(baseY+y+1);
+            greedySlice(faceMask(cur, next, faceMask), y, 1,0,2, POS_Y, true);
+            // nobody looks at the underside of the world
+            if (baseY+y > 0) greedySlice(faceMask(cur, prev, faceMask), y, 1,0,2, NEG_Y, false);
+            prev = cur; cur = next;
         }
         // Z slices
-        for (int z=0; z<=SIZE; z++) {
-            byte[][] mask = c.buildMaskZ(z);
-            greedySlice(mask, z, 2,0,1, new Vector3(0,0,+1), false);
-            greedySlice(mask, z, 2,0,1, new Vector3(0,0,-1), false);
+        prev = maskZ(data, -1, s); cur = maskZ(data, 0, s);
+        for (int z=0; z<SIZE; z++) {
+            byte[][] next = maskZ(data, z+1, s);
+            greedySlice(faceMask(cur, next, faceMask), z, 2,0,1, POS_Z, false);
+            greedySlice(faceMask(cur, prev, faceMask), z, 2,0,1, NEG_Z, false);
+            prev = cur; cur = next;
         }
+    }
 
-        // build meshes
-        Mesh gM = buildMesh(grassV, grassI);
-        Mesh dM = buildMesh(dirtV,  dirtI);
-        Mesh sM = buildMesh(stoneV, stoneI);
-
-        // mats
-        Material mG = new Material(ColorAttribute.createDiffuse(Color.GREEN));
-        Material mD = new Material(ColorAttribute.createDiffuse(new Color(0.6f,0.4f,0.2f,1f)));
-        Material mS = new Material(ColorAttribute.createDiffuse(Color.GRAY));
-        IntAttribute noCull = IntAttribute.createCullFace(GL20.GL_NONE);
+    /** X slice mask, reading the east/west neighbour's border slice past the chunk edge. */
+    private static byte[][] maskX(ChunkMeshData data, int x, int s) {
+        if (x < 0) {
+            Chunk west = data.neighbours[Direction.WEST.ordinal()];
+            if (west != null) return west.buildMaskX(SIZE-1, s);
+        } else if (x >= SIZE) {
+            Chunk east = data.neighbours[Direction.EAST.ordinal()];
+            if (east != null) return east.buildMaskX(0, s);
+        }
+        return data.chunk.buildMaskX(x, s);
+    }
 
-        ModelBuilder mb = new ModelBuilder();
-        mb.begin();
-        if (!grassI.isEmpty()) mb.part("grass", gM, GL20.GL_TRIANGLES, mG);
-        if (!dirtI .isEmpty()) mb.part("dirt",  dM, GL20.GL_TRIANGLES, mD);
-        if (!stoneI.isEmpty()) mb.part("stone", sM, GL20.GL_TRIANGLES, mS);
-        Model model = mb.end();
+    /** Z slice mask, reading the south/north neighbour's border slice past the chunk edge. */
+    private static byte[][] maskZ(ChunkMeshData data, int z, int s) {
+        if (z < 0) {
+            Chunk north = data.neighbours[Direction.NORTH.ordinal()];
+            if (north != null) return north.buildMaskZ(SIZE-1, s);
+        } else if (z >= SIZE) {
+            Chunk south = data.neighbours[Direction.SOUTH.ordinal()];
+            if (south != null) return south.buildMaskZ(0, s);
+        }
+        return data.chunk.buildMaskZ(z, s);
+    }
 
-        return new ModelInstance(model);
+    /** Cells of {@code blocks} whose neighbour in the face direction is air, written to m. */
+    private static byte[][] faceMask(byte[][] blocks, byte[][] neighbour, byte[][] m) {
+        for (int i=0; i<m.length; i++)
+            for (int j=0; j<m[i].length; j++)
+                m[i][j] = neighbour[i][j]==BlockType.AIR ? blocks[i][j] : BlockType.AIR;
+        return m;
     }
 
     /**
@@ -103,24 +387,7 @@ public class ChunkMeshBuilder {
                         if (mask[i+h][j+k]!=id) break outer;
                     h++;
                 }
-                // corner coords low/high
-                float[] low  = new float[3], high = new float[3];
-                // offset on slice axis:
-                float off = ( (uIndex==0?normal.x: uIndex==1?normal.y:normal.z) >0?1f:0f );
-                low [uIndex] = slice + off;
-                low [v1Index]= i;
-                low [v2Index]= j;
-                high[uIndex] = low[uIndex];
-                high[v1Index]= i+h;
-                high[v2Index]= j+w;
-
-                // build 4 corners
-                Vector3 p1 = new Vector3(low[0],low[1],low[2]);
-                Vector3 p2 = new Vector3(high[0],low[1],low[2]);
-                Vector3 p3 = new Vector3(high[0],high[1],high[2]);
-                Vector3 p4 = new Vector3(low[0],high[1],high[2]);
-
-                emitQuad(id, p1,p2,p3,p4, normal, isTopFace);
+                emitRect(id, slice, uIndex, v1Index, v2Index, i, j, h, w, normal, isTopFace);
 
                 // zero‐out
                 for (int di=0; di<h; di++)
@@ -131,44 +398,77 @@ public class ChunkMeshBuilder {
         }
     }
 
-    private void emitQuad(byte id,
-                          Vector3 p1,Vector3 p2,Vector3 p3,Vector3 p4,
-                          Vector3 n, boolean isTop)
+    /**
+     * Emits the h×w face rectangle starting at (i,j) in the (v1,v2) plane of
+     * section‑local slice {@code slice} along axis uIndex.
+     */
+    void emitRect(byte id, int slice,
+                  int uIndex, int v1Index, int v2Index,
+                  int i, int j, int h, int w,
+                  Vector3 normal, boolean isTopFace)
     {
-        List<Float>  vB; List<Short> iB; short base;
-        if (id==BlockType.GRASS && isTop)      { vB=grassV; base=grassB; iB=grassI; }
-        else if (id==BlockType.GRASS || id==BlockType.DIRT) { vB=dirtV;  base=dirtB;  iB=dirtI; }
-        else                                   { vB=stoneV; base=stoneB;iB=stoneI; }
-
-        boolean flip = (n.x+n.y+n.z)<0;
-        Vector3[] quad = flip
-            ? new Vector3[]{p1,p4,p3,p3,p2,p1}
-            : new Vector3[]{p1,p2,p3,p3,p4,p1};
-
-        for (Vector3 v : quad) {
-            vB.add(v.x); vB.add(v.y); vB.add(v.z);
-            vB.add(n.x); vB.add(n.y); vB.add(n.z);
-        }
-        for (short k=0;k<6;k++) iB.add((short)(base+k));
-
-        if      (id==BlockType.GRASS && isTop) grassB +=6;
-        else if (id==BlockType.GRASS||id==BlockType.DIRT) dirtB+=6;
-        else                                     stoneB+=6;
-    }
-
-    private Mesh buildMesh(List<Float> v, List<Short> i) {
-        if (i.isEmpty()) return new Mesh(true,0,0);
-        Mesh m = new Mesh(true,
-            v.size()/VSIZE, i.size(),
-            new VertexAttribute(Usage.Position, 3,"a_position"),
-            new VertexAttribute(Usage.Normal,   3,"a_normal")
-        );
-        float[] fv = new float[v.size()];
-        for (int j=0;j<fv.length;j++) fv[j]=v.get(j);
-        short[] si = new short[i.size()];
-        for (int j=0;j<si.length;j++) si[j]=i.get(j);
-        m.setVertices(fv);
-        m.setIndices(si);
-        return m;
+        // corner coords low/high
+        // offset on slice axis:
+        float off = ( (uIndex==0?normal.x: uIndex==1?normal.y:normal.z) >0?1f:0f );
+        low [uIndex] = (slice + off) * scale;
+        low [v1Index]= i * scale;
+        low [v2Index]= j * scale;
+        high[uIndex] = low[uIndex];
+        high[v1Index]= (i+h) * scale;
+        high[v2Index]= (j+w) * scale;
+        low[1] += yOffset; high[1] += yOffset;
+
+        // build 4 corners (x,y,z each), walking the two in‑plane axes in
+        // (u+1, u+2) order so the quad winds counter‑clockwise around +u
+        int a = (uIndex+1)%3, b = (uIndex+2)%3;
+        float[] q = corners;
+        for (int k=0; k<3; k++) {
+            q[k]   = low[k];
+            q[3+k] = k==a ? high[k] : low[k];
+            q[6+k] = high[k];
+            q[9+k] = k==b ? high[k] : low[k];
+        }
+
+        emitQuad(id, q, normal, isTopFace);
+    }
+
+    /**
+     * Corners p1..p4 packed in q, in the order the shared 0,1,2,2,3,0 index
+     * pattern winds counter‑clockwise; reversed for faces pointing down an axis.
+     */
+    private void emitQuad(byte id, float[] q, Vector3 n, boolean isTop)
+    {
+        // grass only looks like grass from above
+        int material = (id==BlockType.GRASS && !isTop) ? BlockType.DIRT : id & 0xff;
+        int info = normalIndex(n) | material << 3;
+        if ((n.x+n.y+n.z)<0) {
+            vertex(q, 0, info); vertex(q, 3, info); vertex(q, 2, info); vertex(q, 1, info);
+        } else {
+            vertex(q, 0, info); vertex(q, 1, info); vertex(q, 2, info); vertex(q, 3, info);
+        }
+    }
+
+    /** 0..5 for +X,‑X,+Y,‑Y,+Z,‑Z; the order {@link TerrainRenderer}'s shader decodes. */
+    static int normalIndex(Vector3 n) {
+        if (n.x != 0) return n.x > 0 ? 0 : 1;
+        if (n.y != 0) return n.y > 0 ? 2 : 3;
+        return n.z > 0 ? 4 : 5;
+    }
+
+    private void vertex(float[] q, int corner, int info) {
+        int o = corner*3;
+        verts.add(pack((int)q[o] + offsetX, (int)q[o+1]),
+                  pack((int)q[o+2] + offsetZ, info));
+    }
+
+    /**
+     * Two shorts in one float, in memory order.  Coordinates stay below 2^9
+     * and info below 2^11, so the exponent bits are never all set and the
+     * float is never a NaN that could be canonicalised on the way to the GPU.
+     */
+    private static float pack(int first, int second) {
+        int bits = BIG_ENDIAN ? (first << 16) | (second & 0xffff)
+                              : (second << 16) | (first & 0xffff);
+        return Float.intBitsToFloat(bits);
     }
 }
@@ -0,0 +1,50 @@
+package com.rabalder.bornindecay;
+
+/**
+ * CPU result of meshing one chunk: a plain array of packed quad vertices,
+ * four per quad and no indices (draws use the shared {@link QuadIndexBuffer}),
+ * and no GL objects, so it can be produced on a worker thread and handed to
+ * the render thread for upload.
+ */
+public class ChunkMeshData {
+    public final Chunk chunk;
+    /** Horizontal neighbours by {@link Direction#ordinal()}, null where not loaded. */
+    public final Chunk[] neighbours = new Chunk[6];
+    /** Chunk versions this job was started from. */
+    public final int version, neighbourVersion;
+    /** Level of detail: cells of 2^lod blocks, 0 for full detail. */
+    public final int lod;
+    /** Block offset of the chunk inside its {@link RegionBuffer}, added to every vertex. */
+    public final int regionOffsetX, regionOffsetZ;
+
+    /**
+     * Packed vertices in {@link ChunkMeshBuilder}'s layout, {@link ChunkMeshBuilder#VERTEX_FLOATS}
+     * floats each, or null when the chunk has no visible faces.
+     */
+    public float[] vertices;
+    /** First quad of each section's faces; the last entry is the total. */
+    public final int[] sectionQuads = new int[Chunk.SECTIONS + 1];
+    /** Face connectivity per section, see {@link SectionVisibility}. */
+    public final short[] visibility = new short[Chunk.SECTIONS];
+    /** Set instead of the results when meshing threw. */
+    public RuntimeException error;
+
+    public ChunkMeshData(Chunk chunk, int version, int neighbourVersion, int lod) {
+        this.chunk = chunk;
+        this.version = version;
+        this.neighbourVersion = neighbourVersion;
+        this.lod = lod;
+        this.regionOffsetX = Math.floorMod(chunk.getChunkX(), RegionBuffer.REGION) * Chunk.SIZE;
+        this.regionOffsetZ = Math.floorMod(chunk.getChunkZ(), RegionBuffer.REGION) * Chunk.SIZE;
+    }
+
+    /** Four consecutive vertices per quad. */
+    public int getQuadCount() {
+        return vertices == null ? 0 : vertices.length / (ChunkMeshBuilder.VERTEX_FLOATS * 4);
+    }
+
+    /** Bytes this data will occupy once uploaded; indices are shared. */
+    public int getByteSize() {
+        return vertices == null ? 0 : vertices.length * 4;
+    }
+}
@@ -0,0 +1,96 @@
+package com.rabalder.bornindecay;
+
+/**
+ * One SIZE³ slab of a chunk column.
+ *
+ * Sections made of a single block id (all air above the terrain, all stone
+ * below it) are shared singletons from {@link #uniform(byte)} and hold no
+ * block array at all; only mixed sections own a {@link BlockStorage}.
+ * Sections are never written once built: {@link Chunk#setBlock} swaps in an
+ * edited copy, so mesh jobs reading a chunk on a worker thread only ever
+ * see whole sections, old or new.  The storage is reached through a final
+ * field, which makes the copy safe to hand over without a lock.
+ */
+public final class ChunkSection {
+    private static final ChunkSection[] UNIFORM = new ChunkSection[256];
+    static {
+        for (int i = 0; i < UNIFORM.length; i++) {
+            UNIFORM[i] = new ChunkSection((byte)i, null);
+        }
+    }
+
+    /** The shared all‑air section. */
+    public static final ChunkSection EMPTY = uniform(BlockType.AIR);
+
+    private final byte         uniformId;
+    private final BlockStorage storage;
+
+    private ChunkSection(byte uniformId, BlockStorage storage) {
+        this.uniformId = uniformId;
+        this.storage   = storage;
+    }
+
+    /** The shared section filled with {@code id}. */
+    public static ChunkSection uniform(byte id) {
+        return UNIFORM[id & 0xff];
+    }
+
+    /** Wraps a storage, collapsing it to the shared singleton if it is uniform. */
+    public static ChunkSection of(BlockStorage storage) {
+        if (storage.isUniform()) return uniform(storage.get(0));
+        return new ChunkSection(BlockType.AIR, storage);
+    }
+
+    /** A copy of this section with block i set to id. */
+    ChunkSection with(int i, byte id) {
+        BlockStorage copy = writableCopy();
+        copy.set(i, id);
+        return of(copy);
+    }
+
+    /** A copy of this section with row (y,z) along x replaced by src[off..off+SIZE). */
+    ChunkSection withRow(int y, int z, byte[] src, int off) {
+        BlockStorage copy = writableCopy();
+        copy.setRow(y, z, src, off);
+        return of(copy);
+    }
+
+    private BlockStorage writableCopy() {
+        return storage == null ? new BlockStorage(uniformId) : storage.copy();
+    }
+
+    public boolean isUniform() {
+        return storage == null;
+    }
+
+    public boolean isEmpty() {
+        return storage == null && uniformId == BlockType.AIR;
+    }
+
+    /** The single id of a uniform section; meaningless for mixed ones. */
+    public byte getUniformId() {
+        return uniformId;
+    }
+
+    /** Backing storage, or null for a uniform section. */
+    public BlockStorage getStorage() {
+        return storage;
+    }
+
+    public byte get(int i) {
+        return storage == null ? uniformId : storage.get(i);
+    }
+
+    public void getRow(int y, int z, byte[] dst, int off) {
+        if (storage == null) {
+            for (int x = 0; x < BlockStorage.SIZE; x++) dst[off + x] = uniformId;
+            return;
+        }
+        storage.getRow(y, z, dst, off);
+    }
+
+    /** Approximate heap bytes owned by this section (0 for shared ones). */
+    public int getMemoryBytes() {
+        return storage == null ? 0 : storage.getMemoryBytes();
+    }
+}
@@ -0,0 +1,275 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Horizon beyond the voxel chunks: one heightfield tile per
+ * {@link RegionBuffer#REGION}‑sized region out to {@link #RADIUS} regions,
+ * sampled straight from the {@link HeightMap} without generating or meshing
+ * any chunk.  Tiles get coarser with distance (see {@link #STEPS}) and hang
+ * skirts from their edges so neighbours of different detail leave no
+ * cracks.  A tile is only rebuilt, on the worker pool, when its region
+ * moves to another detail level; the old mesh is drawn until the new one
+ * arrives.  Tiles stay cached one region past the radius so walking back
+ * and forth over a boundary does not churn them.  Where voxel chunks are
+ * meshed, the tiles are cut away when drawn, see {@link #holeMinX}.
+ */
+public class FarTerrain implements Disposable {
+    /** Tile radius in regions around the camera's region. */
+    public static final int RADIUS = 4;
+    /** Sample spacing in blocks per detail level. */
+    static final int[] STEPS = { 2, 4, 8, 16 };
+    /** Floats per vertex: region‑relative x, y, z, then shade and material. */
+    static final int VERTEX_FLOATS = 5;
+
+    private static final int EDGE = RegionBuffer.REGION * Chunk.SIZE;
+    /** Tiles built and uploaded per update at most. */
+    private static final int UPLOADS_PER_FRAME = 4;
+
+    /** One region's heightfield. */
+    public static final class Tile {
+        public final int regionX, regionZ;
+        /** World position of the region's corner; vertices are relative to it. */
+        public final float originX, originZ;
+        public final BoundingBox bounds = new BoundingBox();
+        /** Null until the first build arrives. */
+        Mesh mesh;
+        int level = -1, buildingLevel = -1;
+
+        Tile(int regionX, int regionZ) {
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+            this.originX = regionX * EDGE;
+            this.originZ = regionZ * EDGE;
+        }
+    }
+
+    /** A finished build, waiting for the GL thread. */
+    private static final class Built {
+        final Tile tile;
+        final int level;
+        final float[] vertices;
+        final int minY, maxY;
+
+        Built(Tile tile, int level, float[] vertices, int minY, int maxY) {
+            this.tile = tile;
+            this.level = level;
+            this.vertices = vertices;
+            this.minY = minY;
+            this.maxY = maxY;
+        }
+    }
+
+    /** Grid and skirt indices per level, shared by all tiles. */
+    private static final short[][] INDICES = new short[STEPS.length][];
+    static {
+        for (int level = 0; level < STEPS.length; level++) INDICES[level] = indices(EDGE / STEPS[level]);
+    }
+
+    /**
+     * Block area, in world x/z, covered by meshed voxel chunks; the tiles
+     * are not drawn over it, empty when max is not above min.  Set by {@link #update}.
+     */
+    public float holeMinX, holeMinZ, holeMaxX, holeMaxZ;
+
+    private final HeightMap heights;
+    private final Executor  workers;
+    private final LongMap<Tile> tiles = new LongMap<>();
+    private final Array<Tile>   drawable = new Array<>(false, 128);
+    private final ConcurrentLinkedQueue<Built> built = new ConcurrentLinkedQueue<>();
+
+    public FarTerrain(HeightMap heights, Executor workers) {
+        this.heights = heights;
+        this.workers = workers;
+    }
+
+    /**
+     * Settles finished builds, drops tiles out of range and queues a build
+     * for every tile whose detail level changed.  chunkMin/chunkMax bound
+     * the meshed voxel chunks, inclusive; max below min for none.  GL thread only.
+     */
+    public void update(float cameraX, float cameraZ, int chunkMinX, int chunkMinZ, int chunkMaxX, int chunkMaxZ) {
+        holeMinX = chunkMinX * Chunk.SIZE;
+        holeMinZ = chunkMinZ * Chunk.SIZE;
+        holeMaxX = (chunkMaxX + 1) * Chunk.SIZE;
+        holeMaxZ = (chunkMaxZ + 1) * Chunk.SIZE;
+
+        int rx = Math.floorDiv((int)Math.floor(cameraX), EDGE);
+        int rz = Math.floorDiv((int)Math.floor(cameraZ), EDGE);
+
+        // 1) upload what the workers finished, if the tile is still wanted at that level;
+        //    builds can finish out of order, and an older one must not replace a newer
+        Built b;
+        int uploads = 0;
+        while (uploads < UPLOADS_PER_FRAME && (b = built.poll()) != null) {
+            Tile tile = b.tile;
+            if (tiles.get(Chunk.key(tile.regionX, tile.regionZ)) != tile) continue;
+            if (b.level != tile.buildingLevel) continue;
+            if (tile.mesh != null) tile.mesh.dispose();
+            short[] indices = INDICES[b.level];
+            tile.mesh = new Mesh(true, b.vertices.length / VERTEX_FLOATS, indices.length,
+                new VertexAttribute(Usage.Position, 3, "a_position"),
+                new VertexAttribute(Usage.Generic, 2, "a_surface"));
+            tile.mesh.setVertices(b.vertices);
+            tile.mesh.setIndices(indices);
+            tile.level = b.level;
+            tile.bounds.min.set(tile.originX, b.minY - skirtDepth(b.level), tile.originZ);
+            tile.bounds.max.set(tile.originX + EDGE + 1, b.maxY, tile.originZ + EDGE + 1);
+            tile.bounds.update();
+            uploads++;
+        }
+
+        // 2) forget tiles a region past the radius
+        for (LongMap.Entries<Tile> it = tiles.entries(); it.hasNext(); ) {
+            Tile tile = it.next().value;
+            if (ring(tile, rx, rz) > RADIUS + 1) {
+                if (tile.mesh != null) tile.mesh.dispose();
+                it.remove();
+            }
+        }
+
+        // 3) create tiles in range and rebuild the ones whose level changed
+        drawable.clear();
+        for (int z = rz - RADIUS; z <= rz + RADIUS; z++) {
+            for (int x = rx - RADIUS; x <= rx + RADIUS; x++) {
+                long key = Chunk.key(x, z);
+                Tile tile = tiles.get(key);
+                if (tile == null) tiles.put(key, tile = new Tile(x, z));
+                int level = levelFor(ring(tile, rx, rz));
+                if (tile.level != level && tile.buildingLevel != level) schedule(tile, level);
+                if (tile.mesh != null) drawable.add(tile);
+            }
+        }
+    }
+
+    /** Tiles in range with a mesh, from the last {@link #update}. */
+    public Array<Tile> getTiles() {
+        return drawable;
+    }
+
+    /** Tiles held, including ones still building and ones cached past the radius. */
+    public int getCachedTileCount() {
+        return tiles.size;
+    }
+
+    private void schedule(final Tile tile, final int level) {
+        tile.buildingLevel = level;
+        workers.execute(() -> built.add(build(tile, level)));
+    }
+
+    private static int ring(Tile tile, int rx, int rz) {
+        return Math.max(Math.abs(tile.regionX - rx), Math.abs(tile.regionZ - rz));
+    }
+
+    /** Full detail for the camera's region and its neighbours, one level coarser per ring after. */
+    static int levelFor(int ring) {
+        return Math.max(0, Math.min(STEPS.length - 1, ring - 1));
+    }
+
+    /** How far skirts hang below the edge, enough to cover a coarser neighbour. */
+    private static int skirtDepth(int level) {
+        return 2 * STEPS[level + 1 < STEPS.length ? level + 1 : level] + 4;
+    }
+
+    /** Samples and lays out one tile; any thread. */
+    private Built build(Tile tile, int level) {
+        int step = STEPS[level];
+        int n = EDGE / step, side = n + 1;
+        // one extra sample around the grid for the slopes at its edge
+        int[] h = new int[(side + 2) * (side + 2)];
+        heights.sample((int)tile.originX - step, (int)tile.originZ - step, step, side + 2, side + 2, h);
+
+        float[] v = new float[(side * side + 4 * side) * VERTEX_FLOATS];
+        int minY = Chunk.HEIGHT, maxY = 0;
+        int o = 0;
+        for (int j = 0; j < side; j++) {
+            for (int i = 0; i < side; i++) {
+                int c = (j + 1) * (side + 2) + (i + 1);
+                int y = h[c];
+                // normal of the smoothed surface; shaded like the block faces it stands for
+                float nx = (h[c - 1] - h[c + 1]) / (2f * step);
+                float nz = (h[c - side - 2] - h[c + side + 2]) / (2f * step);
+                float len2 = nx*nx + 1f + nz*nz;
+                float shade = (1f + 0.8f*nx*nx + 0.65f*nz*nz) / len2;
+                byte material = len2 < 2f ? BlockType.GRASS : BlockType.DIRT;
+
+                // at block centres, where the columns' heights are
+                v[o++] = i * step + 0.5f;
+                v[o++] = y;
+                v[o++] = j * step + 0.5f;
+                v[o++] = shade;
+                v[o++] = material;
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+            }
+        }
+
+        // skirts: a lowered copy of each edge row, in the order indices() expects
+        int depth = skirtDepth(level);
+        for (int edge = 0; edge < 4; edge++) {
+            for (int k = 0; k < side; k++) {
+                int src = edgeVertex(edge, k, side) * VERTEX_FLOATS;
+                System.arraycopy(v, src, v, o, VERTEX_FLOATS);
+                v[o + 1] -= depth;
+                o += VERTEX_FLOATS;
+            }
+        }
+        return new Built(tile, level, v, minY, maxY);
+    }
+
+    /** Grid vertex k along edge 0 (z = 0), 1 (z = max), 2 (x = 0) or 3 (x = max). */
+    private static int edgeVertex(int edge, int k, int side) {
+        switch (edge) {
+            case 0:  return k;
+            case 1:  return (side - 1) * side + k;
+            case 2:  return k * side;
+            default: return k * side + side - 1;
+        }
+    }
+
+    private static short[] indices(int n) {
+        int side = n + 1;
+        short[] idx = new short[(n * n + 4 * n) * 6];
+        int o = 0;
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < n; i++) {
+                int a = j * side + i;
+                o = quad(idx, o, a, a + side, a + side + 1, a + 1);
+            }
+        }
+        int skirts = side * side;
+        for (int edge = 0; edge < 4; edge++) {
+            for (int k = 0; k < n; k++) {
+                int s = skirts + edge * side + k;
+                o = quad(idx, o, edgeVertex(edge, k, side), edgeVertex(edge, k + 1, side), s + 1, s);
+            }
+        }
+        return idx;
+    }
+
+    private static int quad(short[] idx, int o, int a, int b, int c, int d) {
+        idx[o++] = (short)a; idx[o++] = (short)b; idx[o++] = (short)c;
+        idx[o++] = (short)c; idx[o++] = (short)d; idx[o++] = (short)a;
+        return o;
+    }
+
+    @Override
+    public void dispose() {
+        for (LongMap.Values<Tile> it = tiles.values(); it.hasNext(); ) {
+            Tile tile = it.next();
+            if (tile.mesh != null) tile.mesh.dispose();
+        }
+        tiles.clear();
+        drawable.clear();
+        built.clear();
+    }
+}
@@ -0,0 +1,103 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Terrain surface heights from multi‑octave OpenSimplex noise, cached per
+ * chunk column.  One instance is shared by chunk generation (on the worker
+ * pool), spawn selection and any other height query, so each column is only
+ * ever evaluated once while it stays near the player.  Thread‑safe.
+ */
+public class HeightMap {
+    /** Mean surface height in blocks. */
+    public static final int BASE_HEIGHT = 32;
+
+    private static final int    SIZE           = Chunk.SIZE;
+    private static final int    OCTAVES        = 4;
+    private static final double BASE_FREQUENCY = 1.0 / 128.0;
+    private static final float  BASE_AMPLITUDE = 16f;
+    private static final float  PERSISTENCE    = 0.5f;
+
+    private final long seed;
+    /** Column heights by {@link Chunk#key}, index z*SIZE + x. Guarded by itself. */
+    private final LongMap<int[]> columns = new LongMap<>();
+
+    public HeightMap(long seed) {
+        this.seed = seed;
+    }
+
+    /** Surface height at a world column: blocks with y &lt; height are solid. */
+    public int getHeight(int worldX, int worldZ) {
+        int cx = Math.floorDiv(worldX, SIZE);
+        int cz = Math.floorDiv(worldZ, SIZE);
+        return getColumn(cx, cz)[(worldZ - cz*SIZE)*SIZE + (worldX - cx*SIZE)];
+    }
+
+    /**
+     * Heights for a whole chunk column, index z*SIZE + x.
+     * The array is shared – callers must not modify it.
+     */
+    public int[] getColumn(int chunkX, int chunkZ) {
+        long key = Chunk.key(chunkX, chunkZ);
+        synchronized (columns) {
+            int[] h = columns.get(key);
+            if (h != null) return h;
+        }
+        // compute outside the lock; a rare duplicate on a race is harmless
+        int[] h = compute(chunkX, chunkZ);
+        synchronized (columns) {
+            int[] prev = columns.get(key);
+            if (prev != null) return prev;
+            columns.put(key, h);
+        }
+        return h;
+    }
+
+    /** Forgets columns farther than radius chunks from (centerX,centerZ). */
+    public void retainAround(int centerX, int centerZ, int radius) {
+        synchronized (columns) {
+            for (LongMap.Keys it = columns.keys(); it.hasNext; ) {
+                long key = it.next();
+                if (Math.abs((int)(key >> 32) - centerX) > radius
+                    || Math.abs((int)key - centerZ) > radius) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public int getCachedColumnCount() {
+        synchronized (columns) {
+            return columns.size;
+        }
+    }
+
+    /**
+     * Uncached heights on a countX × countZ grid of columns starting at
+     * (worldX, worldZ), step blocks apart, into out (index j*countX + i).
+     * Gives exactly the column heights where the grid meets them, at a cost
+     * per sample rather than per column, for far terrain.
+     */
+    public void sample(int worldX, int worldZ, int step, int countX, int countZ, int[] out) {
+        float[] octave = new float[countX*countZ];
+        float[] sum    = new float[countX*countZ];
+        double freq = BASE_FREQUENCY;
+        float  amp  = BASE_AMPLITUDE;
+        for (int o = 0; o < OCTAVES; o++) {
+            OpenSimplexNoise.noise2Grid(seed + o, octave, 0,
+                worldX*freq, worldZ*freq, step*freq, countX, countZ);
+            for (int i = 0; i < sum.length; i++) sum[i] += octave[i] * amp;
+            freq *= 2;
+            amp  *= PERSISTENCE;
+        }
+        for (int i = 0; i < sum.length; i++) {
+            out[i] = Math.max(1, Math.min(Chunk.HEIGHT - 1, BASE_HEIGHT + Math.round(sum[i])));
+        }
+    }
+
+    private int[] compute(int chunkX, int chunkZ) {
+        int[] h = new int[SIZE*SIZE];
+        sample(chunkX*SIZE, chunkZ*SIZE, 1, SIZE, SIZE, h);
+        return h;
+    }
+}
@@ -412,6 +412,69 @@ public class OpenSimplexNoise {
         return value;
     }
 
+    /*
+     * Grid Evaluators
+     */
+
+    /**
+     * Fills a regular 2D grid with {@link #noise2} values:
+     * out[offset + j * countX + i] = noise2(seed, x0 + i * spacing, y0 + j * spacing).
+     * Allocation-free; the lattice skew is computed once per row and stepped
+     * per sample, so only the unskewed base runs per point.
+     */
+    public static void noise2Grid(long seed, float[] out, int offset,
+                                  double x0, double y0, double spacing,
+                                  int countX, int countY) {
+
+        // Skewing is linear, so stepping x by spacing moves (xs, ys) by a constant.
+        double stepXs = spacing * (1 + SKEW_2D);
+        double stepYs = spacing * SKEW_2D;
+
+        int o = offset;
+        for (int j = 0; j < countY; j++) {
+            double y = y0 + j * spacing;
+            double s = SKEW_2D * (x0 + y);
+            double xsRow = x0 + s, ysRow = y + s;
+            for (int i = 0; i < countX; i++) {
+                out[o++] = noise2_UnskewedBase(seed, xsRow + i * stepXs, ysRow + i * stepYs);
+            }
+        }
+    }
+
+    /**
+     * Fills a regular 3D grid with {@link #noise3_ImproveXZ} values, laid out
+     * x fastest, then z, then y (the same order as chunk block storage):
+     * out[offset + (k * countZ + j) * countX + i] =
+     *     noise3_ImproveXZ(seed, x0 + i * spacing, y0 + k * spacing, z0 + j * spacing).
+     * Allocation-free; the lattice rotation is computed once per row.
+     */
+    public static void noise3_ImproveXZGrid(long seed, float[] out, int offset,
+                                            double x0, double y0, double z0, double spacing,
+                                            int countX, int countY, int countZ) {
+
+        // The rotation is linear, so stepping x by spacing moves (xr, yr, zr) by a constant.
+        double stepXr = spacing * (1 + ROTATE3_ORTHOGONALIZER);
+        double stepYr = spacing * -ROOT3OVER3;
+        double stepZr = spacing * ROTATE3_ORTHOGONALIZER;
+
+        int o = offset;
+        for (int k = 0; k < countY; k++) {
+            double yy = (y0 + k * spacing) * ROOT3OVER3;
+            for (int j = 0; j < countZ; j++) {
+                double z = z0 + j * spacing;
+                double xz = x0 + z;
+                double s2 = xz * ROTATE3_ORTHOGONALIZER;
+                double xrRow = x0 + s2 + yy;
+                double zrRow = z + s2 + yy;
+                double yrRow = xz * -ROOT3OVER3 + yy;
+                for (int i = 0; i < countX; i++) {
+                    out[o++] = noise3_UnrotatedBase(seed,
+                        xrRow + i * stepXr, yrRow + i * stepYr, zrRow + i * stepZr);
+                }
+            }
+        }
+    }
+
     /**
      * 4D SuperSimplex noise, with XYZ oriented like noise3_ImproveXY
      * and W for an extra degree of freedom. W repeats eventually.
@@ -5,13 +5,31 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.math.Vector3;
 
-import java.util.List;
-
+/**
+ * Walks an upright box through the world.  {@link #position} is the eye;
+ * the box spans {@link #HALF_WIDTH} around it horizontally and from
+ * {@link #EYE_HEIGHT} below to {@link #HEIGHT} minus that above.  Each step
+ * is swept one axis at a time, y first, against only the blocks the moving
+ * box passes through, asking {@link WorldManager#isSolid} for each: no
+ * allocation, and the cost depends on the step, not on the world.
+ */
 public class PlayerController {
+    public static final float HALF_WIDTH = 0.3f;
+    public static final float HEIGHT     = 1.8f;
+    public static final float EYE_HEIGHT = 1.6f;
+
+    /** Gap kept to faces, so a box resting on a block does not count as inside it. */
+    private static final float SKIN = 1e-3f;
+
     public final Vector3 position = new Vector3();
     private final Vector3 velocity = new Vector3();
+    private boolean onGround;
+
+    // sweep scratch: box corners and the block range it passes through
+    private final float[] min = new float[3], max = new float[3];
+    private final int[]   lo  = new int[3],   hi  = new int[3];
 
-    public void update(PerspectiveCamera cam, float dt, List<Vector3> coll) {
+    public void update(PerspectiveCamera cam, float dt, WorldManager world) {
         float speed = 10f;
         if (Gdx.input.isKeyPressed(Input.Keys.W)) velocity.z = -speed;
         else if (Gdx.input.isKeyPressed(Input.Keys.S)) velocity.z = speed;
@@ -19,18 +37,69 @@ public class PlayerController {
         if (Gdx.input.isKeyPressed(Input.Keys.A)) velocity.x = -speed;
         else if (Gdx.input.isKeyPressed(Input.Keys.D)) velocity.x = speed;
         else velocity.x=0;
+        if (onGround && Gdx.input.isKeyPressed(Input.Keys.SPACE)) velocity.y = 8f;
 
         // simple gravity
         velocity.y -= 20f*dt;
 
-        // apply
-        position.mulAdd(velocity, dt);
-
-        // floor at y=1
-        if (position.y<1) { position.y=1; velocity.y=0; }
+        move(world, dt);
 
         cam.position.set(position);
         cam.lookAt(position.x,position.y,position.z-1);
         cam.update();
     }
+
+    /** Moves by velocity*dt, stopping at solid blocks and zeroing the blocked components. */
+    void move(WorldManager world, float dt) {
+        float dy = velocity.y * dt;
+        float my = sweep(world, 1, dy);
+        position.y += my;
+        onGround = dy < 0 && my > dy;
+        if (my != dy) velocity.y = 0;
+
+        float dx = velocity.x * dt;
+        float mx = sweep(world, 0, dx);
+        position.x += mx;
+        if (mx != dx) velocity.x = 0;
+
+        float dz = velocity.z * dt;
+        float mz = sweep(world, 2, dz);
+        position.z += mz;
+        if (mz != dz) velocity.z = 0;
+    }
+
+    /**
+     * How far the box can move by d along axis (0 x, 1 y, 2 z) before
+     * touching a solid block: d itself if nothing is in the way.
+     */
+    private float sweep(WorldManager world, int axis, float d) {
+        if (d == 0) return 0;
+        min[0] = position.x - HALF_WIDTH; max[0] = position.x + HALF_WIDTH;
+        min[1] = position.y - EYE_HEIGHT; max[1] = min[1] + HEIGHT;
+        min[2] = position.z - HALF_WIDTH; max[2] = position.z + HALF_WIDTH;
+
+        // 1) blocks the box overlaps on the other axes, and passes on this one
+        for (int a = 0; a < 3; a++) {
+            float from = min[a], to = max[a];
+            if (a == axis) {
+                if (d > 0) { from = max[a]; to = max[a] + d; }
+                else       { from = min[a] + d; to = min[a]; }
+            }
+            lo[a] = (int)Math.floor(from);
+            hi[a] = (int)Math.ceil(to) - 1;
+        }
+
+        // 2) stop at the nearest face of any solid one, a skin's width short
+        for (int x = lo[0]; x <= hi[0]; x++) {
+            for (int y = lo[1]; y <= hi[1]; y++) {
+                for (int z = lo[2]; z <= hi[2]; z++) {
+                    if (!world.isSolid(x, y, z)) continue;
+                    int block = axis == 0 ? x : axis == 1 ? y : z;
+                    if (d > 0) d = Math.min(d, Math.max(0f, block - max[axis] - SKIN));
+                    else       d = Math.max(d, Math.min(0f, block + 1 - min[axis] + SKIN));
+                }
+            }
+        }
+        return d;
+    }
 }
@@ -0,0 +1,102 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * One static element buffer holding the 0,1,2,2,3,0 pattern for every quad,
+ * shared by all chunk draws; meshes only carry four consecutive vertices
+ * per quad.  Unsigned shorts address 16384 quads; a mesh bigger than that
+ * switches the buffer to unsigned ints where the GL supports them, and is
+ * drawn truncated where it does not.  Render thread only.
+ */
+public class QuadIndexBuffer implements Disposable {
+    /** Quads addressable with unsigned short indices. */
+    public static final int MAX_SHORT_QUADS = (1 << 16) / 4;
+
+    private int handle;
+    private int type = GL20.GL_UNSIGNED_SHORT;
+    private int capacity;
+
+    /** Builds the buffer for the short index range up front. */
+    public QuadIndexBuffer() {
+        handle = Gdx.gl.glGenBuffer();
+        upload(MAX_SHORT_QUADS);
+    }
+
+    /**
+     * Draws {@code quads} quads starting at quad {@code first} of the
+     * currently bound vertices as triangles.
+     */
+    public void draw(int first, int quads) {
+        if (first + quads > capacity) grow(first + quads);
+        quads = Math.min(quads, capacity - first);
+        if (quads <= 0) return;
+        int indexBytes = type == GL20.GL_UNSIGNED_SHORT ? 2 : 4;
+        Gdx.gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, handle);
+        Gdx.gl.glDrawElements(GL20.GL_TRIANGLES, quads * 6, type, first * 6 * indexBytes);
+    }
+
+    /** GL name of the element buffer, for vertex array objects that capture it. */
+    int getHandle() {
+        return handle;
+    }
+
+    /** Quads the buffer currently covers. */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void grow(int quads) {
+        if (!supportsIntIndices()) return;
+        upload(Math.max(quads, capacity * 2));
+    }
+
+    private void upload(int quads) {
+        Buffer data;
+        int bytes;
+        if (quads <= MAX_SHORT_QUADS) {
+            ShortBuffer b = BufferUtils.newShortBuffer(quads * 6);
+            for (int q = 0, v = 0; q < quads; q++, v += 4) {
+                b.put((short)v).put((short)(v+1)).put((short)(v+2))
+                 .put((short)(v+2)).put((short)(v+3)).put((short)v);
+            }
+            data  = b;
+            bytes = quads * 6 * 2;
+            type  = GL20.GL_UNSIGNED_SHORT;
+        } else {
+            IntBuffer b = BufferUtils.newIntBuffer(quads * 6);
+            for (int q = 0, v = 0; q < quads; q++, v += 4) {
+                b.put(v).put(v+1).put(v+2).put(v+2).put(v+3).put(v);
+            }
+            data  = b;
+            bytes = quads * 6 * 4;
+            type  = GL20.GL_UNSIGNED_INT;
+        }
+        data.flip();
+        Gdx.gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, handle);
+        Gdx.gl.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, bytes, data, GL20.GL_STATIC_DRAW);
+        Gdx.gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        capacity = quads;
+    }
+
+    /** GL3 and desktop GL always have 32‑bit indices; GLES 2 needs the extension. */
+    private static boolean supportsIntIndices() {
+        return Gdx.gl30 != null
+            || Gdx.app.getType() == Application.ApplicationType.Desktop
+            || Gdx.graphics.supportsExtension("GL_OES_element_index_uint");
+    }
+
+    @Override
+    public void dispose() {
+        if (handle != 0) Gdx.gl.glDeleteBuffer(handle);
+        handle = 0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.rabalder.bornindecay;
+
+import java.util.Arrays;
+
+/**
+ * Picks the chunk load radius from how long frames take.  Frame times go
+ * into a rolling window; every {@link #EVALUATE_EVERY} frames its median
+ * and 95th percentile are compared against the target.  The radius drops
+ * by one as soon as the slow frames go over it, and grows by one only
+ * after {@link #GROW_AFTER} evaluations in a row with plenty of headroom
+ * and the generation/meshing backlog down to what one ring at the current
+ * radius holds ({@link #backlogLimit}), so it settles instead of
+ * oscillating.  After any change the window starts over, so the next
+ * decision only sees frames at the new radius.  Render thread only.
+ */
+public class RadiusController {
+    /** Frames kept for the percentiles. */
+    public static final int WINDOW = 120;
+    /** Frames between evaluations once the window is full. */
+    public static final int EVALUATE_EVERY = 30;
+    /** Consecutive evaluations with headroom needed before growing. */
+    public static final int GROW_AFTER = 3;
+
+    /** Shrink when the 95th percentile is this far over the target, or the median is over it. */
+    private static final float SHRINK_ABOVE = 1.2f;
+    /** Grow only while the 95th percentile stays under this share of the target. */
+    private static final float GROW_BELOW   = 0.6f;
+
+    private final int   minRadius, maxRadius;
+    private final float targetSeconds;
+
+    private final float[] samples = new float[WINDOW];
+    private final float[] sorted  = new float[WINDOW];
+    private int   count, next, sinceEvaluation, goodEvaluations;
+    private int   radius;
+    private float median, p95;
+
+    public RadiusController(int minRadius, int maxRadius, int radius, float targetSeconds) {
+        if (minRadius < 0 || minRadius > maxRadius) {
+            throw new IllegalArgumentException("bad radius bounds " + minRadius + ".." + maxRadius);
+        }
+        this.minRadius = minRadius;
+        this.maxRadius = maxRadius;
+        this.radius = Math.max(minRadius, Math.min(maxRadius, radius));
+        this.targetSeconds = targetSeconds;
+    }
+
+    /**
+     * Records one frame's time and the chunk jobs still waiting to be
+     * generated, meshed or uploaded; returns the radius to use from now on.
+     */
+    public int update(float frameSeconds, int backlog) {
+        samples[next] = frameSeconds;
+        next = (next + 1) % WINDOW;
+        if (count < WINDOW) count++;
+        if (count < WINDOW || ++sinceEvaluation < EVALUATE_EVERY) return radius;
+        sinceEvaluation = 0;
+
+        System.arraycopy(samples, 0, sorted, 0, WINDOW);
+        Arrays.sort(sorted);
+        median = sorted[WINDOW / 2];
+        p95    = sorted[WINDOW * 95 / 100];
+
+        if (p95 > targetSeconds * SHRINK_ABOVE || median > targetSeconds) {
+            goodEvaluations = 0;
+            if (radius > minRadius) change(radius - 1);
+        } else if (p95 < targetSeconds * GROW_BELOW && backlog <= backlogLimit(radius)) {
+            if (++goodEvaluations >= GROW_AFTER && radius < maxRadius) change(radius + 1);
+        } else {
+            goodEvaluations = 0;
+        }
+        return radius;
+    }
+
+    /** Backlog of chunk jobs above which the radius is not grown: the 8r chunks of ring r. */
+    static int backlogLimit(int radius) {
+        return 8 * radius;
+    }
+
+    private void change(int radius) {
+        this.radius = radius;
+        count = 0;
+        next = 0;
+        sinceEvaluation = 0;
+        goodEvaluations = 0;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /** Median frame time at the last evaluation, in seconds. */
+    public float getMedian() {
+        return median;
+    }
+
+    /** 95th percentile frame time at the last evaluation, in seconds. */
+    public float getP95() {
+        return p95;
+    }
+}
@@ -0,0 +1,72 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * First‑fit allocator of ranges in [0, capacity), with freed ranges merged
+ * back into their neighbours.  Units are whatever the caller counts in;
+ * {@link RegionBuffer} uses quads.  Not thread‑safe.
+ */
+class RangeAllocator {
+    private final int capacity;
+    /** Free ranges, sorted by start and never adjacent. */
+    private final IntArray starts  = new IntArray();
+    private final IntArray lengths = new IntArray();
+    private int used;
+
+    RangeAllocator(int capacity) {
+        this.capacity = capacity;
+        starts.add(0);
+        lengths.add(capacity);
+    }
+
+    /** Start of a free range of n units, now taken, or -1 if none is large enough. */
+    int allocate(int n) {
+        for (int i = 0; i < starts.size; i++) {
+            int length = lengths.get(i);
+            if (length < n) continue;
+            int start = starts.get(i);
+            if (length == n) {
+                starts.removeIndex(i);
+                lengths.removeIndex(i);
+            } else {
+                starts.set(i, start + n);
+                lengths.set(i, length - n);
+            }
+            used += n;
+            return start;
+        }
+        return -1;
+    }
+
+    /** Returns a range handed out by {@link #allocate}. */
+    void free(int start, int n) {
+        int i = 0;
+        while (i < starts.size && starts.get(i) < start) i++;
+        boolean joinsPrev = i > 0 && starts.get(i-1) + lengths.get(i-1) == start;
+        boolean joinsNext = i < starts.size && start + n == starts.get(i);
+        if (joinsPrev && joinsNext) {
+            lengths.incr(i-1, n + lengths.get(i));
+            starts.removeIndex(i);
+            lengths.removeIndex(i);
+        } else if (joinsPrev) {
+            lengths.incr(i-1, n);
+        } else if (joinsNext) {
+            starts.set(i, start);
+            lengths.incr(i, n);
+        } else {
+            starts.insert(i, start);
+            lengths.insert(i, n);
+        }
+        used -= n;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /** Units currently handed out. */
+    int getUsed() {
+        return used;
+    }
+}
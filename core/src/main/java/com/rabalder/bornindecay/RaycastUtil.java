@@ -1,53 +1,55 @@
 package com.rabalder.bornindecay;
 
-import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.graphics.Camera;
-import com.badlogic.gdx.graphics.g3d.ModelInstance;
-import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.collision.Ray;
-import com.badlogic.gdx.math.Vector3;
-import java.util.List;
+import com.badlogic.gdx.math.GridPoint3;
 
 public class RaycastUtil {
 
-    public static ModelInstance getTargetedBlock(Camera camera, List<ModelInstance> blocks, float maxDistance)
+    /**
+     * Walks the voxel grid along the camera's view ray (Amanatides & Woo) and
+     * reports the first solid block within maxDistance in {@code hit}, and
+     * the side it was entered through in {@code face} (zero if the camera is
+     * inside it).  Returns false if nothing solid is in reach.
+     */
+    public static boolean getTargetedBlock(Camera camera, WorldManager world, float maxDistance,
+                                           GridPoint3 hit, GridPoint3 face)
     {
-        Ray ray = new Ray(camera.position.cpy(), camera.direction.cpy().nor());
-        ModelInstance closest = null;
-        float closestDist = maxDistance;
-        Vector3 intersection = new Vector3();
-
-        for (ModelInstance block : blocks) {
-            Vector3 pos = block.transform.getTranslation(new Vector3());
-
-            BoundingBox bounds = new BoundingBox(
-                new Vector3(pos).sub(0.5f, 0.5f, 0.5f),
-                new Vector3(pos).add(0.5f, 0.5f, 0.5f)
-            );
-
-            if (Intersector.intersectRayBounds(ray, bounds, intersection)) {
-                float dist = ray.origin.dst(intersection);
-                if (dist < closestDist) {
-                    closestDist = dist;
-                    closest = block;
-                }
+        float ox = camera.position.x, oy = camera.position.y, oz = camera.position.z;
+        float dx = camera.direction.x, dy = camera.direction.y, dz = camera.direction.z;
+        float len = (float)Math.sqrt(dx*dx + dy*dy + dz*dz);
+        if (len == 0f) return false;
+        dx /= len; dy /= len; dz /= len;
+
+        int x = (int)Math.floor(ox), y = (int)Math.floor(oy), z = (int)Math.floor(oz);
+        int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1, stepZ = dz > 0 ? 1 : -1;
+        // ray distance between grid lines, and to the first one, per axis
+        float deltaX = dx == 0 ? Float.MAX_VALUE : Math.abs(1f / dx);
+        float deltaY = dy == 0 ? Float.MAX_VALUE : Math.abs(1f / dy);
+        float deltaZ = dz == 0 ? Float.MAX_VALUE : Math.abs(1f / dz);
+        float maxX = dx == 0 ? Float.MAX_VALUE : (dx > 0 ? x + 1 - ox : ox - x) * deltaX;
+        float maxY = dy == 0 ? Float.MAX_VALUE : (dy > 0 ? y + 1 - oy : oy - y) * deltaY;
+        float maxZ = dz == 0 ? Float.MAX_VALUE : (dz > 0 ? z + 1 - oz : oz - z) * deltaZ;
+
+        face.set(0, 0, 0);
+        float t = 0f;
+        while (t <= maxDistance) {
+            if (world.getBlock(x, y, z) != BlockType.AIR) {
+                hit.set(x, y, z);
+                return true;
+            }
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX; t = maxX; maxX += deltaX; face.set(-stepX, 0, 0);
+            } else if (maxY < maxZ) {
+                y += stepY; t = maxY; maxY += deltaY; face.set(0, -stepY, 0);
+            } else {
+                z += stepZ; t = maxZ; maxZ += deltaZ; face.set(0, 0, -stepZ);
             }
         }
-
-        return closest;
+        return false;
     }
 
-
-    public static Vector3 getPlacementPosition(ModelInstance target, Camera camera) {
-        Vector3 targetPos = target.transform.getTranslation(new Vector3());
-        Vector3 normal = camera.direction.cpy().nor();
-
-        Vector3 face = new Vector3(
-            Math.abs(normal.x) > Math.abs(normal.y) && Math.abs(normal.x) > Math.abs(normal.z) ? Math.signum(normal.x) : 0,
-            Math.abs(normal.y) > Math.abs(normal.x) && Math.abs(normal.y) > Math.abs(normal.z) ? Math.signum(normal.y) : 0,
-            Math.abs(normal.z) > Math.abs(normal.x) && Math.abs(normal.z) > Math.abs(normal.y) ? Math.signum(normal.z) : 0
-        );
-
-        return targetPos.add(face);
+    /** Where a block placed against the targeted face would go. */
+    public static GridPoint3 getPlacementPosition(GridPoint3 hit, GridPoint3 face, GridPoint3 out) {
+        return out.set(hit).add(face);
     }
 }
@@ -0,0 +1,144 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongArray;
+
+/**
+ * Shared vertex storage for a {@link #REGION}×{@link #REGION} square of
+ * chunks.  Chunk meshes are suballocated as quad ranges of large pages, so
+ * the sections of many chunks can be drawn from one buffer in a few calls.
+ * Vertices are relative to the region's corner (see
+ * {@link ChunkMeshData#regionOffsetX}), and a page is capped at what 16‑bit
+ * shared indices can address; a chunk that alone is larger gets a page of
+ * its own.  A region's first page is small, {@link #MIN_PAGE_QUADS}, and
+ * each page added when the others are full is twice the largest so far, up
+ * to {@link #PAGE_QUADS}, so sparse and coarse regions do not hold full
+ * pages.  Page buffers come from and go back to a shared
+ * {@link VertexBufferPool}; a page is returned as soon as its last range is
+ * freed, unless it is the region's only one.  Render thread only.
+ */
+public class RegionBuffer implements Disposable {
+    /** Region edge in chunks. */
+    public static final int REGION = 8;
+    /** Quads per page, the range of unsigned short indices. */
+    static final int PAGE_QUADS = QuadIndexBuffer.MAX_SHORT_QUADS;
+    /** Quads in a region's first page. */
+    static final int MIN_PAGE_QUADS = 2048;
+
+    private static final int QUAD_FLOATS = ChunkMeshBuilder.VERTEX_FLOATS * 4;
+
+    /** One vertex buffer of the region and the ranges in use in it. */
+    static final class Page {
+        final RegionBuffer region;
+        final VertexBuffer buffer;
+        final RangeAllocator ranges;
+
+        // filled by TerrainRenderer each frame: visible runs as start << 32 | count
+        final LongArray runs = new LongArray();
+        int   frame = -1;
+        float distance;
+
+        Page(RegionBuffer region, VertexBuffer buffer) {
+            this.region = region;
+            this.buffer = buffer;
+            this.ranges = new RangeAllocator(buffer.getCapacity());
+        }
+    }
+
+    public final int regionX, regionZ;
+    /** World position of the region's corner; vertices are relative to it. */
+    public final float originX, originZ;
+
+    private final VertexBufferPool buffers;
+    private final Array<Page> pages = new Array<>();
+
+    public RegionBuffer(int regionX, int regionZ, VertexBufferPool buffers) {
+        this.buffers = buffers;
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+        this.originX = regionX * REGION * Chunk.SIZE;
+        this.originZ = regionZ * REGION * Chunk.SIZE;
+    }
+
+    /** Region coordinate of a chunk coordinate. */
+    public static int regionOf(int chunkCoord) {
+        return Math.floorDiv(chunkCoord, REGION);
+    }
+
+    /**
+     * Copies the chunk's vertices into the first page with a free range large
+     * enough, adding a page if none has one.  Only that range of the page's
+     * buffer is sent to the GPU.
+     */
+    public ChunkMesh upload(ChunkMeshData data) {
+        int quads = data.getQuadCount();
+        if (quads == 0) return new ChunkMesh(null, 0, data);
+
+        Page page = null;
+        int first = -1;
+        for (int i = 0; i < pages.size && first < 0; i++) {
+            page  = pages.get(i);
+            first = page.ranges.allocate(quads);
+        }
+        if (first < 0) {
+            page = new Page(this, buffers.obtain(nextPageQuads(quads)));
+            pages.add(page);
+            first = page.ranges.allocate(quads);
+        }
+        page.buffer.update(first, data.vertices);
+        return new ChunkMesh(page, first, data);
+    }
+
+    /** Size for a new page: double the largest page held, within the page bounds, and at least the chunk. */
+    private int nextPageQuads(int quads) {
+        int largest = MIN_PAGE_QUADS / 2;
+        for (Page page : pages) largest = Math.max(largest, page.ranges.getCapacity());
+        return Math.max(quads, Math.min(PAGE_QUADS, 2 * largest));
+    }
+
+    /**
+     * Gives a chunk's range back; its old vertices are left in place until
+     * overwritten.  An emptied page goes back to the pool, except the last
+     * one, which the region keeps for its next chunk.
+     */
+    void free(Page page, int first, int quads) {
+        page.ranges.free(first, quads);
+        if (page.ranges.getUsed() == 0 && pages.size > 1 && pages.removeValue(page, true)) {
+            buffers.free(page.buffer);
+        }
+    }
+
+    /** True when no chunk has a range in any page. */
+    public boolean isEmpty() {
+        for (Page page : pages) {
+            if (page.ranges.getUsed() > 0) return false;
+        }
+        return true;
+    }
+
+    /** Bytes of vertex storage held by the pages. */
+    public int getCapacityBytes() {
+        int bytes = 0;
+        for (Page page : pages) bytes += page.ranges.getCapacity() * QUAD_FLOATS * 4;
+        return bytes;
+    }
+
+    /** Bytes of vertex storage holding live chunk ranges. */
+    public int getUsedBytes() {
+        int bytes = 0;
+        for (Page page : pages) bytes += page.ranges.getUsed() * QUAD_FLOATS * 4;
+        return bytes;
+    }
+
+    public int getPageCount() {
+        return pages.size;
+    }
+
+    /** Hands every page back to the pool; chunk meshes still pointing at them must not be drawn. */
+    @Override
+    public void dispose() {
+        for (Page page : pages) buffers.free(page.buffer);
+        pages.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package com.rabalder.bornindecay;
+
+import java.util.Arrays;
+
+/**
+ * Face‑to‑face connectivity of one chunk section for cave culling.  A flood
+ * fill over the section's air records which pairs of its six faces
+ * (by {@link Direction#ordinal()}) are joined by an open path, packed as a
+ * 15‑bit set.  {@link WorldManager} only lets its visibility search leave a
+ * section through a face connected to the one it came in by.  Not
+ * thread‑safe; one per builder.
+ */
+class SectionVisibility {
+    static final short NONE = 0;
+    static final short ALL  = 0x7fff;
+
+    private static final int SIZE  = Chunk.SIZE;
+    private static final int FACES = 6;
+    /** Bit of each unordered face pair, PAIR[a*FACES + b]. */
+    private static final int[] PAIR = new int[FACES * FACES];
+    static {
+        int bit = 0;
+        for (int a = 0; a < FACES; a++)
+            for (int b = a + 1; b < FACES; b++)
+                PAIR[a*FACES + b] = PAIR[b*FACES + a] = bit++;
+    }
+
+    private final byte[] blocks  = new byte[BlockStorage.VOLUME];
+    private final byte[] row     = new byte[SIZE];
+    private final long[] visited = new long[BlockStorage.VOLUME / 64];
+    private final int[]  stack   = new int[BlockStorage.VOLUME];
+
+    /** True if a path through the section joins faces a and b. */
+    static boolean connected(short set, int a, int b) {
+        return a == b || (set & (1 << PAIR[a*FACES + b])) != 0;
+    }
+
+    /** Connectivity of one section; uniform sections are all open or all closed. */
+    short compute(ChunkSection section) {
+        if (section.isUniform()) return section.getUniformId() == BlockType.AIR ? ALL : NONE;
+
+        for (int y = 0; y < SIZE; y++)
+            for (int z = 0; z < SIZE; z++)
+                section.getRow(y, z, blocks, BlockStorage.index(0, y, z));
+        Arrays.fill(visited, 0L);
+
+        int set = 0;
+        for (int i = 0; i < BlockStorage.VOLUME; i++) {
+            if (blocks[i] != BlockType.AIR || isVisited(i)) continue;
+            int faces = fill(i);
+            for (int a = 0; a < FACES; a++) {
+                if ((faces & (1 << a)) == 0) continue;
+                for (int b = a + 1; b < FACES; b++) {
+                    if ((faces & (1 << b)) != 0) set |= 1 << PAIR[a*FACES + b];
+                }
+            }
+            if (set == ALL) break;
+        }
+        return (short)set;
+    }
+
+    /** Floods the air component containing start; returns the faces it touches as Direction bits. */
+    private int fill(int start) {
+        int faces = 0, top = 0;
+        stack[top++] = start;
+        markVisited(start);
+        while (top > 0) {
+            int i = stack[--top];
+            int x = i % SIZE, z = (i / SIZE) % SIZE, y = i / (SIZE * SIZE);
+            if (x == 0)      faces |= 1 << Direction.WEST.ordinal();
+            if (x == SIZE-1) faces |= 1 << Direction.EAST.ordinal();
+            if (z == 0)      faces |= 1 << Direction.NORTH.ordinal();
+            if (z == SIZE-1) faces |= 1 << Direction.SOUTH.ordinal();
+            if (y == 0)      faces |= 1 << Direction.DOWN.ordinal();
+            if (y == SIZE-1) faces |= 1 << Direction.UP.ordinal();
+
+            if (x > 0)      top = push(i - 1, top);
+            if (x < SIZE-1) top = push(i + 1, top);
+            if (z > 0)      top = push(i - SIZE, top);
+            if (z < SIZE-1) top = push(i + SIZE, top);
+            if (y > 0)      top = push(i - SIZE*SIZE, top);
+            if (y < SIZE-1) top = push(i + SIZE*SIZE, top);
+        }
+        return faces;
+    }
+
+    private int push(int i, int top) {
+        if (blocks[i] != BlockType.AIR || isVisited(i)) return top;
+        markVisited(i);
+        stack[top] = i;
+        return top + 1;
+    }
+
+    private boolean isVisited(int i) {
+        return (visited[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private void markVisited(int i) {
+        visited[i >>> 6] |= 1L << i;
+    }
+}
@@ -0,0 +1,185 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Draws chunk sections without going through ModelBatch: the chunk shader
+ * (shaders/chunk.vert / chunk.frag), the {@link BlockAtlas} and the shared
+ * {@link QuadIndexBuffer} are bound once per frame.  Visible sections are
+ * grouped by {@link RegionBuffer} page: each page is one bind with its
+ * region origin as a uniform, and its visible quad ranges are sorted and
+ * merged where they touch, so a region costs a few draws however many
+ * chunks it holds.  Pages are drawn front to back, by their nearest visible
+ * section, so early depth testing rejects hidden fragments.  {@link FarTerrain}
+ * tiles are drawn after the chunks with their own flat-coloured shader
+ * (shaders/far.vert / far.frag), so the voxels occlude them where the two
+ * overlap.  Render thread only.
+ */
+public class TerrainRenderer implements Disposable {
+    /** Vertex attribute alias of the packed (x, y, z, info) shorts. */
+    public static final String PACKED_ATTRIBUTE = "a_packed";
+
+    private static final Comparator<RegionBuffer.Page> FRONT_TO_BACK =
+        (a, b) -> Float.compare(a.distance, b.distance);
+
+    private final ShaderProgram   program, farProgram;
+    private final BlockAtlas      atlas;
+    private final QuadIndexBuffer quads;
+    private final int   uProjViewTrans, uOrigin, uAtlas;
+    private final int   uFarProjViewTrans, uFarOrigin, uFarHole;
+    /** Location of {@link #PACKED_ATTRIBUTE}, so binds skip the name lookup. */
+    private final int   packedLocation;
+
+    private final Array<RegionBuffer.Page> pages = new Array<>(false, 16);
+    private int frame;
+    private int drawCalls, farDrawCalls;
+
+    public TerrainRenderer() {
+        program = new ShaderProgram(
+            Gdx.files.internal("shaders/chunk.vert"),
+            Gdx.files.internal("shaders/chunk.frag"));
+        if (!program.isCompiled()) {
+            throw new GdxRuntimeException("Chunk shader failed to compile: " + program.getLog());
+        }
+        uProjViewTrans = program.fetchUniformLocation("u_projViewTrans", true);
+        uOrigin        = program.fetchUniformLocation("u_origin", true);
+        uAtlas         = program.fetchUniformLocation("u_atlas", true);
+        packedLocation = program.getAttributeLocation(PACKED_ATTRIBUTE);
+
+        farProgram = new ShaderProgram(
+            Gdx.files.internal("shaders/far.vert"),
+            Gdx.files.internal("shaders/far.frag"));
+        if (!farProgram.isCompiled()) {
+            throw new GdxRuntimeException("Far terrain shader failed to compile: " + farProgram.getLog());
+        }
+        uFarProjViewTrans = farProgram.fetchUniformLocation("u_projViewTrans", true);
+        uFarOrigin        = farProgram.fetchUniformLocation("u_origin", true);
+        uFarHole          = farProgram.fetchUniformLocation("u_hole", true);
+
+        atlas = new BlockAtlas();
+        quads = new QuadIndexBuffer();
+        program.bind();
+        program.setUniformf("u_tileCount", atlas.getTileCount());
+        farProgram.bind();
+        farProgram.setUniform3fv("u_colors", atlas.getAverageColors(), 0, atlas.getAverageColors().length);
+    }
+
+    /** Draws the given sections as seen from the camera; leaves face culling off. */
+    public void render(Camera camera, List<ChunkMesh.Section> sections) {
+        drawCalls = 0;
+        if (sections.isEmpty()) return;
+
+        // 1) group visible ranges by page, pages front to back by their nearest section
+        frame++;
+        pages.clear();
+        float half = Chunk.SIZE / 2f;
+        for (int i = 0, n = sections.size(); i < n; i++) {
+            ChunkMesh.Section s = sections.get(i);
+            float dx = s.owner.originX + half - camera.position.x;
+            float dy = s.index * Chunk.SIZE + half - camera.position.y;
+            float dz = s.owner.originZ + half - camera.position.z;
+            s.distance = dx*dx + dy*dy + dz*dz;
+
+            RegionBuffer.Page page = s.owner.page;
+            if (page.frame != frame) {
+                page.frame = frame;
+                page.runs.clear();
+                page.distance = s.distance;
+                pages.add(page);
+            }
+            page.distance = Math.min(page.distance, s.distance);
+            page.runs.add((long)s.firstQuad << 32 | s.quadCount);
+        }
+        pages.sort(FRONT_TO_BACK);
+
+        // 2) state, shader and atlas once
+        GL20 gl = Gdx.gl;
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glDepthMask(true);
+        gl.glDisable(GL20.GL_BLEND);
+        gl.glEnable(GL20.GL_CULL_FACE);
+        gl.glCullFace(GL20.GL_BACK);
+
+        atlas.getTexture().bind(0);
+        program.bind();
+        program.setUniformMatrix(uProjViewTrans, camera.combined);
+        program.setUniformi(uAtlas, 0);
+
+        // 3) one bind per page, one draw per run of touching ranges
+        for (int p = 0; p < pages.size; p++) {
+            RegionBuffer.Page page = pages.get(p);
+            page.buffer.bind(packedLocation, quads);
+            program.setUniformf(uOrigin, page.region.originX, 0f, page.region.originZ);
+
+            LongArray runs = page.runs;
+            runs.sort();
+            int start = (int)(runs.get(0) >>> 32), end = start;
+            for (int i = 0; i < runs.size; i++) {
+                int first = (int)(runs.get(i) >>> 32), count = (int)runs.get(i);
+                if (first != end) {
+                    quads.draw(start, end - start);
+                    drawCalls++;
+                    start = first;
+                }
+                end = first + count;
+            }
+            quads.draw(start, end - start);
+            drawCalls++;
+        }
+        VertexBuffer.unbind(packedLocation);
+        gl.glDisable(GL20.GL_CULL_FACE);
+    }
+
+    /** Draws the far tiles the camera can see, outside the voxel area; call after {@link #render}. */
+    public void renderFar(Camera camera, FarTerrain far) {
+        farDrawCalls = 0;
+        Array<FarTerrain.Tile> tiles = far.getTiles();
+        if (tiles.size == 0) return;
+
+        GL20 gl = Gdx.gl;
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glDepthMask(true);
+        gl.glDisable(GL20.GL_BLEND);
+
+        farProgram.bind();
+        farProgram.setUniformMatrix(uFarProjViewTrans, camera.combined);
+        farProgram.setUniformf(uFarHole, far.holeMinX, far.holeMinZ, far.holeMaxX, far.holeMaxZ);
+        for (int i = 0; i < tiles.size; i++) {
+            FarTerrain.Tile tile = tiles.get(i);
+            if (!camera.frustum.boundsInFrustum(tile.bounds)) continue;
+            farProgram.setUniformf(uFarOrigin, tile.originX, 0f, tile.originZ);
+            tile.mesh.render(farProgram, GL20.GL_TRIANGLES);
+            farDrawCalls++;
+        }
+    }
+
+    /** Draw calls issued by the last {@link #render}. */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /** Far tiles drawn by the last {@link #renderFar}. */
+    public int getFarDrawCalls() {
+        return farDrawCalls;
+    }
+
+    @Override
+    public void dispose() {
+        program.dispose();
+        farProgram.dispose();
+        atlas.dispose();
+        quads.dispose();
+    }
+}
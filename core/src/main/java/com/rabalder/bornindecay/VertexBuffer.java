@@ -0,0 +1,108 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A fixed-size GL array buffer of packed chunk vertices, four per quad.
+ * Unlike a libGDX Mesh, which re-sends its whole vertex array whenever any
+ * part of it changes, {@link #update} writes only the given quad range with
+ * glBufferSubData, so filling one chunk's range of a large page costs that
+ * chunk's bytes.  Where GL3 is available the buffer is drawn through a
+ * vertex array object holding its attribute pointer and the shared
+ * {@link QuadIndexBuffer}, as core profiles require; it is made on the
+ * first bind and deleted with the buffer.  Render thread only.
+ */
+public class VertexBuffer implements Disposable {
+    /** Bytes per packed vertex: four shorts. */
+    public static final int VERTEX_BYTES = ChunkMeshBuilder.VERTEX_FLOATS * 4;
+
+    /** Staging for {@link #update}, grown to the largest range written. */
+    private static FloatBuffer scratch = BufferUtils.newFloatBuffer(0);
+
+    private final int capacity;
+    private int handle;
+    /** Vertex array object, 0 until the first GL3 bind. */
+    private int vao;
+    private final int[] vaoName = new int[1];
+
+    /** Allocates storage for {@code quads} quads; the contents start undefined. */
+    public VertexBuffer(int quads) {
+        this.capacity = quads;
+        handle = Gdx.gl.glGenBuffer();
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, handle);
+        Gdx.gl.glBufferData(GL20.GL_ARRAY_BUFFER, getByteSize(), null, GL20.GL_DYNAMIC_DRAW);
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+    }
+
+    /** Overwrites the quads from {@code firstQuad} on with {@code vertices}, and nothing else. */
+    public void update(int firstQuad, float[] vertices) {
+        if (scratch.capacity() < vertices.length) scratch = BufferUtils.newFloatBuffer(vertices.length);
+        BufferUtils.copy(vertices, scratch, vertices.length, 0);
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, handle);
+        Gdx.gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, firstQuad * 4 * VERTEX_BYTES,
+            vertices.length * 4, scratch);
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Makes the buffer the source of the packed attribute at {@code location},
+     * with {@code indices} as the element buffer.  A program keeps its
+     * attribute locations, so the vertex array object is set up only once.
+     */
+    public void bind(int location, QuadIndexBuffer indices) {
+        if (Gdx.gl30 == null) {
+            pointAttribute(location);
+            return;
+        }
+        if (vao != 0) {
+            Gdx.gl30.glBindVertexArray(vao);
+            return;
+        }
+        Gdx.gl30.glGenVertexArrays(1, vaoName, 0);
+        vao = vaoName[0];
+        Gdx.gl30.glBindVertexArray(vao);
+        pointAttribute(location);
+        Gdx.gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indices.getHandle());
+    }
+
+    private void pointAttribute(int location) {
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, handle);
+        Gdx.gl.glEnableVertexAttribArray(location);
+        Gdx.gl.glVertexAttribPointer(location, 4, GL20.GL_SHORT, false, VERTEX_BYTES, 0);
+    }
+
+    /** Undoes {@link #bind} for whichever buffer was bound last. */
+    public static void unbind(int location) {
+        if (Gdx.gl30 != null) {
+            Gdx.gl30.glBindVertexArray(0);
+        } else {
+            Gdx.gl.glDisableVertexAttribArray(location);
+        }
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+    }
+
+    /** Quads the buffer holds. */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getByteSize() {
+        return capacity * 4 * VERTEX_BYTES;
+    }
+
+    @Override
+    public void dispose() {
+        if (vao != 0) {
+            vaoName[0] = vao;
+            Gdx.gl30.glDeleteVertexArrays(1, vaoName, 0);
+            vao = 0;
+        }
+        if (handle != 0) Gdx.gl.glDeleteBuffer(handle);
+        handle = 0;
+    }
+}
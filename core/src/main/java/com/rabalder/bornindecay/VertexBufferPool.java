@@ -0,0 +1,105 @@
+package com.rabalder.bornindecay;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Recycles terrain vertex buffers instead of creating and deleting them as
+ * regions come and go.  Buffers are bucketed by capacity in quads, rounded
+ * up to a power of two, and at most {@link #MAX_POOLED} idle buffers are
+ * kept per bucket.  {@link #free} may be called from any thread; released
+ * buffers are only pooled or deleted by {@link #process} on the GL thread,
+ * at a point in the frame where nothing can still draw from them.  Live
+ * counts and bytes cover every buffer the pool created and has not
+ * deleted, so a leak shows up as growth.
+ */
+public class VertexBufferPool implements Disposable {
+    /** Idle buffers kept per size bucket; the rest are deleted. */
+    public static final int MAX_POOLED = 4;
+
+    private final IntMap<Array<VertexBuffer>>         idle     = new IntMap<>();
+    private final ConcurrentLinkedQueue<VertexBuffer> released = new ConcurrentLinkedQueue<>();
+
+    private int  liveCount, idleCount;
+    private long liveBytes, idleBytes;
+
+    /** A buffer of at least {@code quads} quads, reused if one is idle.  GL thread only. */
+    public VertexBuffer obtain(int quads) {
+        int bucket = bucketOf(quads);
+        Array<VertexBuffer> free = idle.get(bucket);
+        if (free != null && free.size > 0) {
+            idleCount--;
+            idleBytes -= bytesOf(bucket);
+            return free.pop();
+        }
+        liveCount++;
+        liveBytes += bytesOf(bucket);
+        return new VertexBuffer(bucket);
+    }
+
+    /** Hands a buffer back; it is recycled on the next {@link #process}.  Any thread. */
+    public void free(VertexBuffer buffer) {
+        released.add(buffer);
+    }
+
+    /** Pools or deletes the buffers released since the last call.  GL thread only. */
+    public void process() {
+        VertexBuffer buffer;
+        while ((buffer = released.poll()) != null) {
+            int bucket = buffer.getCapacity();
+            Array<VertexBuffer> free = idle.get(bucket);
+            if (free == null) idle.put(bucket, free = new Array<>(false, MAX_POOLED));
+            if (free.size < MAX_POOLED) {
+                free.add(buffer);
+                idleCount++;
+                idleBytes += bytesOf(bucket);
+            } else {
+                buffer.dispose();
+                liveCount--;
+                liveBytes -= bytesOf(bucket);
+            }
+        }
+    }
+
+    /** Buffers created and not yet deleted, in use or idle. */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /** Idle buffers waiting for reuse. */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    public long getIdleBytes() {
+        return idleBytes;
+    }
+
+    private static int bucketOf(int quads) {
+        return Math.max(RegionBuffer.MIN_PAGE_QUADS, Integer.highestOneBit(quads - 1) << 1);
+    }
+
+    private static long bytesOf(int bucket) {
+        return (long)bucket * 4 * VertexBuffer.VERTEX_BYTES;
+    }
+
+    @Override
+    public void dispose() {
+        process();
+        for (IntMap.Entry<Array<VertexBuffer>> bucket : idle.entries()) {
+            for (VertexBuffer buffer : bucket.value) buffer.dispose();
+            liveCount -= bucket.value.size;
+            liveBytes -= bucket.value.size * bytesOf(bucket.key);
+        }
+        idle.clear();
+        idleCount = 0;
+        idleBytes = 0;
+    }
+}
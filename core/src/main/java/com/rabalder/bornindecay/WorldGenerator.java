@@ -1,44 +1,261 @@
 package com.rabalder.bornindecay;
 
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simple chunk loader / cache around a seed.
+ * Terrain is generated as jobs on a worker pool; a chunk only shows up in
+ * {@link #getLoadedChunks()} once its job has finished.
+ * Chunks are loaded within the load radius but only dropped once they are
+ * {@link #UNLOAD_MARGIN} chunks past it, so walking back and forth over a
+ * border does not regenerate anything.  Missing chunks wait in a queue,
+ * nearest first with the ones ahead of the camera pulled forward, and only
+ * a few jobs per worker are in flight, so the chunks seen first load first.
+ */
+public class WorldGenerator implements Disposable {
+    /** Chunks past the load radius that stay loaded. */
+    public static final int UNLOAD_MARGIN = 2;
+    /** Chunks ahead of the camera are queued as if this much closer, as a share of their distance. */
+    private static final float VIEW_BIAS = 0.5f;
+    /** The queue is re‑sorted when the view turns by more than about 15 degrees. */
+    private static final float RESORT_COS = 0.966f;
+
+    private final HeightMap heightMap;
+    private final CaveField caves;
+    /** Primitive open‑addressing map keyed by {@link Chunk#key}; no boxing. */
+    private final LongMap<Chunk> chunks = new LongMap<>();
+    /** Generation jobs still in flight, by chunk key. */
+    private final LongMap<Future<Chunk>> pending = new LongMap<>();
+    /** Chunks in the load radius with no job yet, best first from queueHead on. */
+    private final LongArray queue = new LongArray();
+    private final LongArray order = new LongArray();
+    private int queueHead;
+
+    private final ExecutorService pool;
+    private final boolean         ownsPool;
 
-/** Simple chunk loader / cache around a seed. */
-public class WorldGenerator {
-    private final long seed;
-    private final Map<Long,Chunk> chunks = new HashMap<>();
+    // snapshot handed out by getLoadedChunks(), rebuilt only when the set changes
+    private final List<Chunk> loaded     = new ArrayList<>();
+    private final List<Chunk> loadedView = Collections.unmodifiableList(loaded);
 
+    private final int maxInFlight;
+
+    private int lastCenterX, lastCenterZ, lastRadius = -1;
+    private float viewX, viewZ;
+
+    /** Generates on a private pool with one worker per spare core. */
     public WorldGenerator(long seed) {
-        this.seed = seed;
+        this(seed, new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)), true);
+    }
+
+    /** Generates on the given pool; the caller keeps ownership of it. */
+    public WorldGenerator(long seed, ExecutorService pool) {
+        this(seed, pool, false);
+    }
+
+    private WorldGenerator(long seed, ExecutorService pool, boolean ownsPool) {
+        this.heightMap = new HeightMap(seed);
+        this.caves     = new CaveField(seed);
+        this.pool      = pool;
+        this.ownsPool  = ownsPool;
+        int workers = pool instanceof ForkJoinPool
+            ? ((ForkJoinPool)pool).getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = 2 * workers;
     }
 
     /**
-     * Ensures that only the (2*radius+1)^2 chunks centered on (centerX,centerZ)
-     * remain loaded.  Any new positions get new Chunk(seed,x,z).
+     * Loads the (2*radius+1)^2 chunks centered on (centerX,centerZ) and keeps
+     * loaded ones until they are more than radius + {@link #UNLOAD_MARGIN}
+     * away.  (viewX, viewZ) is the camera's horizontal direction, used to
+     * order the loads; zero means no preference.
+     * The loaded set is diffed in place: chunks that left the outer square
+     * are removed and their jobs cancelled, missing ones inside the load
+     * square are queued, and finished jobs are picked up on every call.
      */
+    public void update(int centerX, int centerZ, int radius, float viewX, float viewZ) {
+        boolean changed = harvest();
+
+        float len = (float)Math.sqrt(viewX*viewX + viewZ*viewZ);
+        if (len > 0) { viewX /= len; viewZ /= len; }
+        boolean turned = (viewX != this.viewX || viewZ != this.viewZ)
+            && viewX*this.viewX + viewZ*this.viewZ < RESORT_COS;
+
+        if (centerX != lastCenterX || centerZ != lastCenterZ || radius != lastRadius) {
+            lastCenterX = centerX;
+            lastCenterZ = centerZ;
+            lastRadius  = radius;
+            // keep a ring of spare columns so short back‑and‑forth trips stay cached
+            heightMap.retainAround(centerX, centerZ, radius + UNLOAD_MARGIN + 1);
+
+            // leaving: only past the outer square
+            int keep = radius + UNLOAD_MARGIN;
+            for (LongMap.Values<Chunk> it = chunks.values(); it.hasNext(); ) {
+                Chunk c = it.next();
+                if (!within(c.getChunkX(), c.getChunkZ(), keep)) {
+                    it.remove();
+                    changed = true;
+                }
+            }
+            for (LongMap.Entries<Future<Chunk>> it = pending.entries(); it.hasNext(); ) {
+                LongMap.Entry<Future<Chunk>> e = it.next();
+                if (!within((int)(e.key >> 32), (int)e.key, keep)) {
+                    e.value.cancel(false);
+                    it.remove();
+                }
+            }
+            // entering: everything missing in the load square, ordered below
+            queue.clear();
+            queueHead = 0;
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    long key = Chunk.key(centerX + dx, centerZ + dz);
+                    if (!chunks.containsKey(key) && !pending.containsKey(key)) queue.add(key);
+                }
+            }
+            turned = true;
+        }
+
+        if (turned) {
+            this.viewX = viewX;
+            this.viewZ = viewZ;
+            sortQueue();
+        }
+
+        // keep the workers busy, but no more, so a turn or a step re‑orders what is still waiting
+        while (pending.size < maxInFlight && queueHead < queue.size) {
+            long key = queue.get(queueHead++);
+            if (chunks.containsKey(key) || pending.containsKey(key)) continue;
+            final int x = (int)(key >> 32), z = (int)key;
+            pending.put(key, pool.submit(() -> new Chunk(heightMap, caves, x, z)));
+        }
+
+        if (changed) rebuildSnapshot();
+    }
+
+    /** Center‑only form with no view preference. */
     public void update(int centerX, int centerZ, int radius) {
-        Map<Long,Chunk> old = new HashMap<>(chunks);
-        chunks.clear();
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dz = -radius; dz <= radius; dz++) {
-                int x = centerX + dx;
-                int z = centerZ + dz;
-                long key = (((long)x)<<32) | (z & 0xffffffffL);
-                chunks.put(
-                    key,
-                    old.computeIfAbsent(
-                        key,
-                        k -> new Chunk(seed, x, z)
-                    )
-                );
+        update(centerX, centerZ, radius, 0f, 0f);
+    }
+
+    /**
+     * Orders the rest of the queue by distance from the center, scaled down
+     * by up to {@link #VIEW_BIAS} for chunks in the view direction.
+     */
+    private void sortQueue() {
+        order.clear();
+        for (int i = queueHead; i < queue.size; i++) {
+            long key = queue.get(i);
+            int dx = (int)(key >> 32) - lastCenterX, dz = (int)key - lastCenterZ;
+            float dist = (float)Math.sqrt(dx*dx + dz*dz);
+            float ahead = dist > 0 ? Math.max(0f, (dx*viewX + dz*viewZ) / dist) : 0f;
+            int score = (int)(dist * (1f - VIEW_BIAS * ahead) * 256f);
+            order.add((long)score << 32 | i);
+        }
+        order.sort();
+        // rewrite the queue in score order, reusing order for the keys
+        for (int i = 0; i < order.size; i++) order.set(i, queue.get((int)order.get(i)));
+        queue.clear();
+        queue.addAll(order);
+        queueHead = 0;
+    }
+    /** Blocks until every queued chunk is generated, e.g. before picking a spawn. */
+    public void awaitPending() {
+        while (pending.size > 0 || queueHead < queue.size) {
+            for (LongMap.Values<Future<Chunk>> it = pending.values(); it.hasNext(); ) {
+                try {
+                    it.next().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    throw new GdxRuntimeException("Chunk generation failed", e.getCause());
+                }
             }
+            harvest();
+            // refill from the queue; the unchanged center and radius skip the diff
+            update(lastCenterX, lastCenterZ, lastRadius, viewX, viewZ);
         }
+        rebuildSnapshot();
+    }
+
+    /** Number of chunks still to be generated, queued or in flight. */
+    public int getPendingCount() {
+        return pending.size + queue.size - queueHead;
+    }
+
+    /** Moves finished jobs into the loaded map; true if any arrived. */
+    private boolean harvest() {
+        boolean any = false;
+        for (LongMap.Entries<Future<Chunk>> it = pending.entries(); it.hasNext(); ) {
+            LongMap.Entry<Future<Chunk>> e = it.next();
+            if (!e.value.isDone()) continue;
+            Chunk c;
+            try {
+                c = e.value.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return any;
+            } catch (ExecutionException ex) {
+                throw new GdxRuntimeException("Chunk generation failed", ex.getCause());
+            }
+            chunks.put(e.key, c);
+            it.remove();
+            any = true;
+        }
+        return any;
+    }
+
+    private void rebuildSnapshot() {
+        loaded.clear();
+        for (LongMap.Values<Chunk> it = chunks.values(); it.hasNext(); ) {
+            loaded.add(it.next());
+        }
+    }
+
+    private boolean within(int chunkX, int chunkZ, int radius) {
+        return Math.abs(chunkX - lastCenterX) <= radius
+            && Math.abs(chunkZ - lastCenterZ) <= radius;
+    }
+
+    /** Shared surface‑height cache used for generation and height queries. */
+    public HeightMap getHeightMap() {
+        return heightMap;
+    }
+
+    /** Cave density field, for its sampling statistics. */
+    public CaveField getCaves() {
+        return caves;
+    }
+
+    /** The loaded chunk at chunk coords (x,z), or null. */
+    public Chunk getChunk(int chunkX, int chunkZ) {
+        return chunks.get(Chunk.key(chunkX, chunkZ));
     }
 
     /** Used by WorldManager to rebuild meshes & collisions */
     public List<Chunk> getLoadedChunks() {
-        return new ArrayList<>(chunks.values());
+        return loadedView;
+    }
+
+    @Override
+    public void dispose() {
+        for (LongMap.Values<Future<Chunk>> it = pending.values(); it.hasNext(); ) {
+            it.next().cancel(false);
+        }
+        pending.clear();
+        queue.clear();
+        if (ownsPool) pool.shutdownNow();
     }
 }
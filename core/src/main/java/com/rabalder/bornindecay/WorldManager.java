@@ -1,68 +1,490 @@
 package com.rabalder.bornindecay;
 
-import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Frustum;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.TimeUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * Keeps exactly one ModelInstance per loaded Chunk,
- * and produces a flat List<ModelInstance> + List<Vector3> for rendering & collision.
+ * Keeps exactly one cached ChunkMesh per loaded Chunk, the region buffers
+ * they live in and the far terrain around them, and produces the visible
+ * chunk sections for rendering; collision asks {@link #isSolid} directly.
  */
 public class WorldManager {
-    private static final int RADIUS = 3;
+    /** Bounds and starting point of the load radius, in chunks; see {@link RadiusController}. */
+    private static final int MIN_RADIUS = 3, MAX_RADIUS = 12, START_RADIUS = 6;
+    /** Frame work time the radius is tuned for. */
+    private static final float TARGET_FRAME_SECONDS = 1f / 60f;
+    /** Chunk ring from which each coarser level of detail applies (2×, then 4× cells). */
+    private static final int[] LOD_RINGS = { 3, 5 };
+    /** Rings a chunk must come back inside a boundary before it is refined again. */
+    private static final int LOD_HYSTERESIS = 1;
+    private static final Direction[] DIRECTIONS = Direction.values();
 
     private final WorldGenerator       generator;
-    private final ChunkMeshBuilder     meshBuilder;
-    private final Map<Chunk,ModelInstance> chunkInstances = new HashMap<>();
+    private final LongMap<ChunkMesh>   meshes = new LongMap<>();
+    /** Shared vertex pages by region key, disposed once their last chunk leaves. */
+    private final LongMap<RegionBuffer> regions = new LongMap<>();
+    private final VertexBufferPool      buffers = new VertexBufferPool();
+    private final FarTerrain            far;
+    private final RadiusController      radiusController;
+    /** Load radius in chunks, fixed between two {@link #recordFrameTime} calls. */
+    private int radius;
+
+    // async meshing: one builder per worker, jobs in flight by key, results waiting for upload
+    private final ExecutorService                        meshPool;
+    private final ThreadLocal<ChunkMeshBuilder>          meshBuilders = ThreadLocal.withInitial(ChunkMeshBuilder::new);
+    private final LongMap<ChunkMeshData>                 meshing      = new LongMap<>();
+    private final ConcurrentLinkedQueue<ChunkMeshData>   meshed       = new ConcurrentLinkedQueue<>();
+
+    private volatile ChunkMeshBuilder.Mode meshMode = ChunkMeshBuilder.Mode.BINARY;
+
+    private long uploadBudgetNanos = 2_000_000L;
+    private int  uploadBudgetBytes = 1 << 20;
+    // visibility search scratch, sized for the loaded square and reused every frame
+    private final List<ChunkMesh.Section> visibleSections = new ArrayList<>();
+    private final List<ChunkMesh.Section> visibleSectionsView = Collections.unmodifiableList(visibleSections);
+    private int[]  visitedFrame = new int[0];
+    private int[]  queue        = new int[0];
+    private byte[] queueEntry   = new byte[0], queueDirs = new byte[0];
+    private int    frame;
+    private int    drawnChunks, culledChunks, culledSections;
 
     /** Now takes a seed so you don’t get “no-arg vs long” errors */
     public WorldManager(long seed) {
-        this.generator   = new WorldGenerator(seed);
-        this.meshBuilder = new ChunkMeshBuilder();
+        this.generator = new WorldGenerator(seed);
+        this.meshPool  = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.far       = new FarTerrain(generator.getHeightMap(), meshPool);
+        this.radiusController = new RadiusController(MIN_RADIUS, MAX_RADIUS, START_RADIUS, TARGET_FRAME_SECONDS);
+        this.radius    = radiusController.getRadius();
+    }
+
+    /** Picks the mesher used for jobs submitted from now on. */
+    public void setMeshMode(ChunkMeshBuilder.Mode mode) {
+        this.meshMode = mode;
     }
 
     /**
-     * Regenerates the set of loaded Chunks around player, rebuilds meshes.
+     * Per‑frame limits for turning finished mesh data into GL meshes.
+     * At least one mesh is uploaded per frame regardless, so progress is guaranteed.
      */
+    public void setUploadBudget(long nanos, int bytes) {
+        this.uploadBudgetNanos = nanos;
+        this.uploadBudgetBytes = bytes;
+    }
+
+    /** {@link #update(Vector3, Vector3)} with no preferred direction for loading. */
     public void update(Vector3 playerPos) {
+        update(playerPos, Vector3.Zero);
+    }
+
+    /**
+     * Updates the set of loaded Chunks around player and remeshes only what changed.
+     * Chunks in the view direction are generated first.
+     */
+    public void update(Vector3 playerPos, Vector3 viewDirection) {
         int cx = (int)Math.floor(playerPos.x / Chunk.SIZE);
         int cz = (int)Math.floor(playerPos.z / Chunk.SIZE);
 
-        generator.update(cx, cz, RADIUS);
+        // buffers released last frame have been drawn for the last time
+        buffers.process();
+
+        generator.update(cx, cz, radius, viewDirection.x, viewDirection.z);
+
+        // drop meshes whose chunk was unloaded (or replaced by a reload)
+        for (LongMap.Entries<ChunkMesh> it = meshes.entries(); it.hasNext(); ) {
+            LongMap.Entry<ChunkMesh> e = it.next();
+            Chunk loaded = generator.getChunk(e.value.chunk.getChunkX(), e.value.chunk.getChunkZ());
+            if (loaded != e.value.chunk) {
+                release(e.value);
+                it.remove();
+            }
+        }
+
+        // forget jobs for chunks that are gone; their results are dropped on arrival
+        for (LongMap.Entries<ChunkMeshData> it = meshing.entries(); it.hasNext(); ) {
+            LongMap.Entry<ChunkMeshData> e = it.next();
+            if (generator.getChunk(e.value.chunk.getChunkX(), e.value.chunk.getChunkZ()) != e.value.chunk) {
+                it.remove();
+            }
+        }
 
-        // rebuild our map of ModelInstances
-        chunkInstances.clear();
+        // queue new chunks and stale ones, unless an identical job is already running;
+        // chunks kept in the unload margin are never drawn, so they keep whatever mesh they have
         for (Chunk chunk : generator.getLoadedChunks()) {
-            ModelInstance mi = meshBuilder.buildChunkMesh(chunk);
-            chunkInstances.put(chunk, mi);
+            int ring = Math.max(Math.abs(chunk.getChunkX() - cx), Math.abs(chunk.getChunkZ() - cz));
+            if (ring > radius) continue;
+            int version          = chunk.getVersion();
+            int neighbourVersion = neighbourBorderVersion(chunk);
+            ChunkMesh cached = meshes.get(chunk.getKey());
+            ChunkMeshData running = meshing.get(chunk.getKey());
+            if (running != null && running.chunk != chunk) running = null;
+            int lod  = lodFor(ring, running != null ? running.lod : cached != null ? cached.lod : -1);
+            if (cached != null
+                && cached.version == version
+                && cached.neighbourVersion == neighbourVersion
+                && cached.lod == lod) continue;
+            if (running != null
+                && running.version == version
+                && running.neighbourVersion == neighbourVersion
+                && running.lod == lod) continue;
+
+            final ChunkMeshData job = new ChunkMeshData(chunk, version, neighbourVersion, lod);
+            int x = chunk.getChunkX(), z = chunk.getChunkZ();
+            job.neighbours[Direction.EAST.ordinal()]  = generator.getChunk(x+1, z);
+            job.neighbours[Direction.WEST.ordinal()]  = generator.getChunk(x-1, z);
+            job.neighbours[Direction.SOUTH.ordinal()] = generator.getChunk(x, z+1);
+            job.neighbours[Direction.NORTH.ordinal()] = generator.getChunk(x, z-1);
+            meshing.put(chunk.getKey(), job);
+            meshPool.execute(() -> {
+                // always hand the job back, so a failure cannot leave it in meshing for good
+                try {
+                    ChunkMeshBuilder builder = meshBuilders.get();
+                    builder.setMode(meshMode);
+                    builder.build(job);
+                } catch (RuntimeException e) {
+                    job.error = e;
+                }
+                meshed.add(job);
+            });
         }
-    }
 
-    /** What to draw this frame */
-    public List<ModelInstance> getChunkMeshes() {
-        return new ArrayList<>(chunkInstances.values());
+        uploadMeshed();
+        // cut the far tiles away only where voxel meshes are already up, or gaps show sky
+        int covered = meshedRadius(cx, cz);
+        far.update(playerPos.x, playerPos.z, cx - covered, cz - covered, cx + covered, cz + covered);
     }
 
-    /** Build a flat list of all non‑air block centers for collision detection */
-    public List<Vector3> getCollisionVoxels() {
-        List<Vector3> voxels = new ArrayList<>();
-        for (Chunk chunk : generator.getLoadedChunks()) {
-            int baseX = chunk.getChunkX() * Chunk.SIZE;
-            int baseZ = chunk.getChunkZ() * Chunk.SIZE;
-            for (int x = 0; x < Chunk.SIZE; x++) {
-                for (int y = 0; y < Chunk.SIZE; y++) {
-                    for (int z = 0; z < Chunk.SIZE; z++) {
-                        if (chunk.getBlock(x,y,z) != BlockType.AIR) {
-                            voxels.add(new Vector3(baseX+x, y, baseZ+z));
-                        }
-                    }
+    /**
+     * Largest ring r around the chunk such that every chunk up to it has an
+     * uploaded mesh, at most the radius; -1 when the centre has none.
+     */
+    private int meshedRadius(int cx, int cz) {
+        for (int r = 0; r <= radius; r++) {
+            for (int i = -r; i <= r; i++) {
+                if (!meshes.containsKey(Chunk.key(cx + i, cz - r)) || !meshes.containsKey(Chunk.key(cx + i, cz + r))
+                    || !meshes.containsKey(Chunk.key(cx - r, cz + i)) || !meshes.containsKey(Chunk.key(cx + r, cz + i))) {
+                    return r - 1;
                 }
             }
         }
-        return voxels;
+        return radius;
+    }
+
+    /** Uploads finished mesh data until the frame's time or byte budget runs out. */
+    private void uploadMeshed() {
+        boolean uploaded = false;
+        long start = TimeUtils.nanoTime();
+        int  bytes = 0;
+        ChunkMeshData data;
+        while ((data = meshed.peek()) != null) {
+            if (uploaded && (bytes + data.getByteSize() > uploadBudgetBytes
+                || TimeUtils.nanoTime() - start > uploadBudgetNanos)) break;
+            meshed.poll();
+
+            long key = data.chunk.getKey();
+            // superseded by a newer job, or the chunk was unloaded meanwhile
+            if (meshing.get(key) != data) continue;
+            meshing.remove(key);
+            if (data.error != null) {
+                // nothing cached matches now, so the next update queues the chunk again
+                Gdx.app.error("WorldManager", "Meshing chunk " + data.chunk.getChunkX() + ","
+                    + data.chunk.getChunkZ() + " failed", data.error);
+                continue;
+            }
+
+            // upload before releasing, so a region is not dropped and rebuilt in between
+            ChunkMesh old = meshes.put(key, region(data.chunk).upload(data));
+            if (old != null) release(old);
+            bytes += data.getByteSize();
+            uploaded = true;
+        }
+    }
+
+    /**
+     * Level of detail for a chunk ring, given the level it has now (-1 for
+     * none): coarser once it reaches a boundary, finer only once it is
+     * {@link #LOD_HYSTERESIS} rings back inside it.
+     */
+    private static int lodFor(int ring, int current) {
+        int lod = Math.max(0, current);
+        while (lod < LOD_RINGS.length && ring >= LOD_RINGS[lod]) lod++;
+        while (lod > 0 && ring < LOD_RINGS[lod-1] - LOD_HYSTERESIS) lod--;
+        return lod;
+    }
+
+    private RegionBuffer region(Chunk chunk) {
+        int rx = RegionBuffer.regionOf(chunk.getChunkX());
+        int rz = RegionBuffer.regionOf(chunk.getChunkZ());
+        long key = Chunk.key(rx, rz);
+        RegionBuffer region = regions.get(key);
+        if (region == null) {
+            region = new RegionBuffer(rx, rz, buffers);
+            regions.put(key, region);
+        }
+        return region;
+    }
+
+    /** Frees a chunk's range, and its region once nothing else uses it. */
+    private void release(ChunkMesh mesh) {
+        mesh.dispose();
+        int rx = RegionBuffer.regionOf(mesh.chunk.getChunkX());
+        int rz = RegionBuffer.regionOf(mesh.chunk.getChunkZ());
+        long key = Chunk.key(rx, rz);
+        RegionBuffer region = regions.get(key);
+        if (region != null && region.isEmpty()) {
+            region.dispose();
+            regions.remove(key);
+        }
+    }
+
+    /**
+     * Stamp of the four horizontal neighbours: changes when one loads,
+     * unloads, or edits its border, so the chunk's culled walls get redone.
+     */
+    private int neighbourBorderVersion(Chunk chunk) {
+        int cx = chunk.getChunkX(), cz = chunk.getChunkZ();
+        int h = borderVersion(cx+1, cz);
+        h = 31*h + borderVersion(cx-1, cz);
+        h = 31*h + borderVersion(cx, cz+1);
+        h = 31*h + borderVersion(cx, cz-1);
+        return h;
+    }
+
+    private int borderVersion(int chunkX, int chunkZ) {
+        Chunk c = generator.getChunk(chunkX, chunkZ);
+        return c == null ? 0 : 1 + 2*c.getBorderVersion();
+    }
+
+    /** Changes one block in world coordinates; the affected meshes rebuild on the next update. */
+    public void setBlock(int worldX, int y, int worldZ, byte id) {
+        int cx = Math.floorDiv(worldX, Chunk.SIZE);
+        int cz = Math.floorDiv(worldZ, Chunk.SIZE);
+        Chunk c = generator.getChunk(cx, cz);
+        if (c != null) c.setBlock(worldX - cx*Chunk.SIZE, y, worldZ - cz*Chunk.SIZE, id);
+    }
+
+    /** Block id at world coordinates; air outside the world or in chunks not loaded. */
+    public byte getBlock(int worldX, int y, int worldZ) {
+        if (y < 0 || y >= Chunk.HEIGHT) return BlockType.AIR;
+        int cx = Math.floorDiv(worldX, Chunk.SIZE);
+        int cz = Math.floorDiv(worldZ, Chunk.SIZE);
+        Chunk c = generator.getChunk(cx, cz);
+        return c == null ? BlockType.AIR : c.getBlock(worldX - cx*Chunk.SIZE, y, worldZ - cz*Chunk.SIZE);
+    }
+
+    /**
+     * True if the block at world coordinates stops movement: anything but
+     * air, below the world floor, or in a chunk that is not loaded yet, so
+     * nothing can walk or fall into ungenerated terrain.
+     */
+    public boolean isSolid(int worldX, int y, int worldZ) {
+        if (y < 0) return true;
+        if (y >= Chunk.HEIGHT) return false;
+        int cx = Math.floorDiv(worldX, Chunk.SIZE);
+        int cz = Math.floorDiv(worldZ, Chunk.SIZE);
+        Chunk c = generator.getChunk(cx, cz);
+        return c == null || c.getBlock(worldX - cx*Chunk.SIZE, y, worldZ - cz*Chunk.SIZE) != BlockType.AIR;
+    }
+
+    /** Blocks until all queued chunks are generated; for startup / spawn placement. */
+    public void awaitChunks() {
+        generator.awaitPending();
+    }
+
+    /** Terrain surface height at a world column (first air block above ground). */
+    public int getSurfaceHeight(int worldX, int worldZ) {
+        return generator.getHeightMap().getHeight(worldX, worldZ);
+    }
+
+    /** Average cave‑density noise samples per generated chunk. */
+    public float getCaveSamplesPerChunk() {
+        return generator.getCaves().getSamplesPerChunk();
+    }
+
+    /** Chunks queued for or in meshing, plus results waiting for upload. */
+    public int getPendingMeshCount() {
+        return meshing.size;
+    }
+
+
+    /**
+     * Sections the camera can see.  A breadth‑first search starts at
+     * the camera's section and steps to a neighbouring section only if it
+     * is loaded, inside the frustum, not back towards the camera, and
+     * reachable through an open path from the face the search came in by.
+     * Sections behind solid rock are never reached.  The result is in
+     * roughly front‑to‑back order; the list is reused and only valid until
+     * the next call.
+     */
+    public List<ChunkMesh.Section> getVisibleSections(Camera camera) {
+        visibleSections.clear();
+        frame++;
+        drawnChunks = 0;
+
+        int span  = 2*radius + 1;
+        int cells = span * span * Chunk.SECTIONS;
+        if (visitedFrame.length < cells) {
+            visitedFrame = new int[cells];
+            queue        = new int[cells];
+            queueEntry   = new byte[cells];
+            queueDirs    = new byte[cells];
+        }
+
+        int camX = (int)Math.floor(camera.position.x / Chunk.SIZE);
+        int camZ = (int)Math.floor(camera.position.z / Chunk.SIZE);
+        int camS = Math.max(0, Math.min(Chunk.SECTIONS - 1, (int)Math.floor(camera.position.y / Chunk.SIZE)));
+        Frustum frustum = camera.frustum;
+        float half = Chunk.SIZE / 2f;
+
+        // cells are ((x*span + z) * SECTIONS + s), relative to the camera chunk's corner of the square
+        int head = 0, tail = 0;
+        int start = (radius*span + radius) * Chunk.SECTIONS + camS;
+        visitedFrame[start] = frame;
+        queue[tail] = start; queueEntry[tail] = -1; queueDirs[tail] = 0; tail++;
+
+        while (head < tail) {
+            int cell = queue[head], entry = queueEntry[head], taken = queueDirs[head];
+            head++;
+            int s  = cell % Chunk.SECTIONS;
+            int lz = (cell / Chunk.SECTIONS) % span;
+            int lx = cell / (Chunk.SECTIONS * span);
+            int x = camX + lx - radius, z = camZ + lz - radius;
+            if (generator.getChunk(x, z) == null) continue;
+
+            ChunkMesh mesh = meshes.get(Chunk.key(x, z));
+            if (mesh != null && mesh.sections[s] != null) {
+                visibleSections.add(mesh.sections[s]);
+                if (mesh.drawnFrame != frame) { mesh.drawnFrame = frame; drawnChunks++; }
+            }
+            // not meshed yet: assume open so nothing behind it is lost
+            short open = mesh != null ? mesh.visibility[s] : SectionVisibility.ALL;
+
+            for (Direction d : DIRECTIONS) {
+                int out = d.ordinal(), back = opposite(d).ordinal();
+                if ((taken & (1 << back)) != 0) continue;
+                if (entry >= 0 && !SectionVisibility.connected(open, entry, out)) continue;
+                int nx = lx + (int)d.normal.x, nz = lz + (int)d.normal.z, ns = s + (int)d.normal.y;
+                if (nx < 0 || nx >= span || nz < 0 || nz >= span || ns < 0 || ns >= Chunk.SECTIONS) continue;
+                int next = (nx*span + nz) * Chunk.SECTIONS + ns;
+                if (visitedFrame[next] == frame) continue;
+                if (!frustum.boundsInFrustum((camX + nx - radius) * Chunk.SIZE + half, ns * Chunk.SIZE + half,
+                                             (camZ + nz - radius) * Chunk.SIZE + half, half, half, half)) continue;
+                visitedFrame[next] = frame;
+                queue[tail] = next; queueEntry[tail] = (byte)back; queueDirs[tail] = (byte)(taken | 1 << out); tail++;
+            }
+        }
+
+        // culled out of what could have been drawn: the margin past the radius never is
+        int sections = 0, chunks = 0;
+        for (LongMap.Values<ChunkMesh> it = meshes.values(); it.hasNext(); ) {
+            ChunkMesh mesh = it.next();
+            if (mesh.isEmpty()) continue;
+            int ring = Math.max(Math.abs(mesh.chunk.getChunkX() - camX), Math.abs(mesh.chunk.getChunkZ() - camZ));
+            if (ring > radius) continue;
+            chunks++;
+            for (ChunkMesh.Section section : mesh.sections) if (section != null) sections++;
+        }
+        culledChunks   = chunks - drawnChunks;
+        culledSections = sections - visibleSections.size();
+        return visibleSectionsView;
+    }
+
+    private static Direction opposite(Direction d) {
+        switch (d) {
+            case UP:    return Direction.DOWN;
+            case DOWN:  return Direction.UP;
+            case NORTH: return Direction.SOUTH;
+            case SOUTH: return Direction.NORTH;
+            case EAST:  return Direction.WEST;
+            default:    return Direction.EAST;
+        }
+    }
+
+    /** Chunks with at least one section drawn by the last {@link #getVisibleSections}. */
+    public int getDrawnChunkCount() {
+        return drawnChunks;
+    }
+
+    /** Non‑empty chunks within the radius left out entirely by the last {@link #getVisibleSections}. */
+    public int getCulledChunkCount() {
+        return culledChunks;
+    }
+
+    /** Non‑empty sections within the radius left out by the last {@link #getVisibleSections}. */
+    public int getCulledSectionCount() {
+        return culledSections;
+    }
+
+    /**
+     * Feeds one frame's work time, and the chunks still waiting to be
+     * generated or meshed, to the radius controller.  Call once per frame,
+     * after drawing; the next {@link #update} uses the resulting radius.
+     */
+    public void recordFrameTime(float seconds) {
+        radius = radiusController.update(seconds, generator.getPendingCount() + meshing.size);
+    }
+
+    /** Current load radius in chunks. */
+    public int getRadius() {
+        return radius;
+    }
+
+    public RadiusController getRadiusController() {
+        return radiusController;
+    }
+
+    /** Heightfield tiles beyond the loaded chunks. */
+    public FarTerrain getFarTerrain() {
+        return far;
+    }
+
+    /** Chunk meshes currently held, empty ones included. */
+    public int getMeshCount() {
+        return meshes.size;
+    }
+
+    public int getRegionCount() {
+        return regions.size;
+    }
+
+    /** Bytes of region page storage holding live chunk vertices. */
+    public long getMeshBytes() {
+        long bytes = 0;
+        for (LongMap.Values<RegionBuffer> it = regions.values(); it.hasNext(); ) {
+            bytes += it.next().getUsedBytes();
+        }
+        return bytes;
+    }
+
+    /** The pool behind the region pages; its live counters stay flat over a long session unless something leaks. */
+    public VertexBufferPool getBufferPool() {
+        return buffers;
+    }
+
+    public void dispose() {
+        for (LongMap.Values<ChunkMesh> it = meshes.values(); it.hasNext(); ) {
+            it.next().dispose();
+        }
+        meshes.clear();
+        for (LongMap.Values<RegionBuffer> it = regions.values(); it.hasNext(); ) {
+            it.next().dispose();
+        }
+        regions.clear();
+        buffers.dispose();
+        far.dispose();
+        meshPool.shutdownNow();
+        meshing.clear();
+        meshed.clear();
+        generator.dispose();
     }
 }